@@ -10,6 +10,14 @@ mkdir -p out
 echo "📦 Compilando classes compartilhadas..."
 javac -d out ../shared/src/distributed/*.java
 
+# Kernel vetorial (opcional): só se o JDK tiver o módulo jdk.incubator.vector
+if java --list-modules 2>/dev/null | grep -q "^jdk.incubator.vector"; then
+    echo "⚡ Compilando kernel vetorial (SIMD)..."
+    javac --add-modules jdk.incubator.vector -cp out -d out ../shared/src-vetorial/distributed/*.java
+else
+    echo "ℹ️  Módulo jdk.incubator.vector não encontrado: só o kernel escalar será usado"
+fi
+
 # Compilar cliente
 echo "🖥️  Compilando cliente..."
 javac -cp out -d out src/distributed/*.java
@@ -18,5 +26,6 @@ echo "✅ Cliente compilado com sucesso!"
 echo "📁 Classes em: cliente/out/distributed/"
 echo ""
 echo "🚀 Para executar:"
+echo "   (adicione --add-modules jdk.incubator.vector logo depois de 'java' para usar o kernel vetorial)"
 echo "   java -cp out:../shared/out distributed.Distribuidor IP1:porta1 IP2:porta2 --tam 1000000"
 echo "   java -cp out:../shared/out distributed.OrdenacaoSequencial 1000000"
@@ -1,29 +1,60 @@
 package distributed;
 
 import java.io.*;
-import java.net.*;
 import java.util.*;
 
 /**
  * Programa D (Distribuidor) - Cliente que coordena a ordenação distribuída.
  * 
  * Este programa:
- * 1. Gera um vetor aleatório
- * 2. Divide o vetor em partes
+ * 1. Gera um vetor aleatório (em paralelo, reproduzível pela semente)
+ * 2. Divide o vetor em partes (iguais, ou proporcionais à capacidade de cada servidor com --pesos)
  * 3. Envia cada parte para um servidor diferente
  * 4. Recebe as partes ordenadas
  * 5. Faz o merge de todas as partes
  * 6. Verifica se está ordenado
  * 
- * Uso: java Distribuidor servidor1:porta1 servidor2:porta2 ... --tam TAMANHO
+ * Também tem modos que não precisam do vetor inteiro ordenado
+ * (cada servidor devolve só um resultado pequeno):
+ *   --topk K [--maiores]     os K menores (ou maiores) elementos
+ *   --kesimo K               o K-ésimo menor elemento
+ *   --percentil P            o elemento no percentil P (0 a 100)
+ *   --intervalo DE ATE       os elementos com valor entre DE e ATE
+ *   --histograma F DE ATE    histograma com F faixas entre DE e ATE
+ * 
+ * Cada servidor pode ser informado como:
+ *   host:porta               receptor remoto por TCP
+ *   unix:/caminho            receptor na mesma máquina por socket Unix
+ *   local (ou local:nome)    receptor dentro desta JVM (sem rede e sem serialização)
+ * 
+ * Uso: java Distribuidor servidor1:porta1 servidor2:porta2 ... --tam TAMANHO [--algoritmo mergesort|natural]
+ *        [--seed SEMENTE] [--dist DISTRIBUICAO] [--hash] [--repeticoes N] [--pesos]
  * Exemplo: java Distribuidor 127.0.0.1:12345 127.0.0.1:12346 --tam 100000
+ *          java Distribuidor unix:/tmp/receptor1.sock local --tam 100000
  */
 public class Distribuidor {
     
+    // Memória estimada por elemento no servidor: buffer recebido e auxiliar do merge
+    // (ambos arredondados para potência de 2 pelo PoolBuffers)
+    private static final long BYTES_POR_ELEMENTO = 16;
+    
+    // --pesos: se a nova divisão mudar menos que isso (fração de cada parte),
+    // a divisão anterior é mantida (assim as partes repetem e o --hash acerta o cache)
+    private static final double TOLERANCIA_PESOS = 0.10;
+    
+    // Seleção distribuída (--kesimo/--percentil): faixas contadas por rodada e
+    // quantos candidatos podem ser buscados de uma vez no final
+    private static final int FAIXAS_SELECAO = 1024;
+    private static final long LIMITE_CANDIDATOS = 65536;
+    
     public static void main(String[] args) throws Exception {
         // Verificar se tem argumentos
         if (args.length == 0) {
-            System.out.println("Uso: java Distribuidor servidor1:porta1 servidor2:porta2 ... --tam TAMANHO");
+            System.out.println("Uso: java Distribuidor servidor1:porta1 servidor2:porta2 ... --tam TAMANHO [--algoritmo mergesort|natural]");
+            System.out.println("       [--seed SEMENTE] [--dist uniforme|ampla|ordenado|quase-ordenado|decrescente|gaussiana]");
+            System.out.println("       [--hash] [--repeticoes N] [--pesos]");
+            System.out.println("       [--topk K [--maiores] | --kesimo K | --percentil P | --intervalo DE ATE | --histograma F DE ATE]");
+            System.out.println("Servidores: host:porta (TCP), unix:/caminho (socket Unix) ou local (nesta JVM)");
             System.out.println("Exemplo: java Distribuidor 127.0.0.1:12345 127.0.0.1:12346 --tam 100000");
             return;
         }
@@ -31,6 +62,21 @@ public class Distribuidor {
         // Variáveis para armazenar os argumentos
         List<String> servidores = new ArrayList<String>();
         int tamanhoVetor = 1000000;  // tamanho padrão: 1 milhão
+        Pedido.Algoritmo algoritmo = Pedido.Algoritmo.MERGE_SORT;
+        boolean usarHash = false;   // mandar só o hash primeiro (cache do servidor)
+        int repeticoes = 1;         // quantas vezes ordenar o mesmo vetor
+        boolean usarPesos = false;  // dividir o vetor conforme a capacidade dos servidores
+        long semente = System.nanoTime();
+        GeradorVetor.Distribuicao distribuicao = GeradorVetor.Distribuicao.UNIFORME;
+        
+        // Modo de execução: ordenar (padrão), topk, kesimo, intervalo ou histograma
+        String modo = "ordenar";
+        int k = 0;
+        boolean maiores = false;
+        double percentil = -1;
+        int de = 0;
+        int ate = 0;
+        int faixas = 0;
         
         // Ler argumentos da linha de comando
         for (int i = 0; i < args.length; i++) {
@@ -40,8 +86,54 @@ public class Distribuidor {
                 // Próximo argumento é o tamanho
                 i++;
                 tamanhoVetor = Integer.parseInt(args[i]);
-            } else if (arg.contains(":")) {
-                // É um servidor no formato host:porta
+            } else if (arg.equals("--algoritmo")) {
+                // Próximo argumento é o algoritmo (mergesort ou natural)
+                i++;
+                if (args[i].equalsIgnoreCase("natural")) {
+                    algoritmo = Pedido.Algoritmo.NATURAL;
+                } else {
+                    algoritmo = Pedido.Algoritmo.MERGE_SORT;
+                }
+            } else if (arg.equals("--seed")) {
+                i++;
+                semente = Long.parseLong(args[i]);
+            } else if (arg.equals("--dist")) {
+                // uniforme, ampla, ordenado, quase-ordenado, decrescente ou gaussiana
+                i++;
+                distribuicao = GeradorVetor.distribuicao(args[i]);
+            } else if (arg.equals("--pesos")) {
+                usarPesos = true;
+            } else if (arg.equals("--hash")) {
+                usarHash = true;
+            } else if (arg.equals("--repeticoes")) {
+                i++;
+                repeticoes = Integer.parseInt(args[i]);
+            } else if (arg.equals("--topk")) {
+                modo = "topk";
+                i++;
+                k = Integer.parseInt(args[i]);
+            } else if (arg.equals("--maiores")) {
+                maiores = true;
+            } else if (arg.equals("--kesimo")) {
+                modo = "kesimo";
+                i++;
+                k = Integer.parseInt(args[i]);
+            } else if (arg.equals("--percentil")) {
+                // O K é calculado depois, quando o tamanho do vetor for conhecido
+                modo = "kesimo";
+                i++;
+                percentil = Double.parseDouble(args[i]);
+            } else if (arg.equals("--intervalo")) {
+                modo = "intervalo";
+                de = Integer.parseInt(args[++i]);
+                ate = Integer.parseInt(args[++i]);
+            } else if (arg.equals("--histograma")) {
+                modo = "histograma";
+                faixas = Integer.parseInt(args[++i]);
+                de = Integer.parseInt(args[++i]);
+                ate = Integer.parseInt(args[++i]);
+            } else if (arg.contains(":") || arg.equals("local")) {
+                // É um servidor: host:porta, unix:/caminho ou local
                 servidores.add(arg);
             }
         }
@@ -55,32 +147,62 @@ public class Distribuidor {
         Log.info("D", "Iniciando distribuidor...");
         Log.info("D", "Servidores: " + servidores.size());
         Log.info("D", "Tamanho do vetor: " + tamanhoVetor);
+        Log.info("D", "Algoritmo: " + algoritmo);
+        Log.info("D", "Modo: " + modo);
         
-        // Gerar vetor aleatório
-        Random random = new Random();
-        int[] vetor = new int[tamanhoVetor];
-        for (int i = 0; i < tamanhoVetor; i++) {
-            vetor[i] = random.nextInt(201) - 100;  // números de -100 a 100
-        }
+        // Gerar vetor aleatório em paralelo (mesma semente = mesmo vetor)
+        long inicioGeracao = System.nanoTime();
+        int[] vetor = GeradorVetor.gerar(tamanhoVetor, semente, distribuicao);
+        double tempoGeracao = (System.nanoTime() - inicioGeracao) / 1_000_000.0;
         
-        Log.info("D", "Vetor gerado com " + tamanhoVetor + " elementos");
+        Log.info("D", "Vetor gerado com " + tamanhoVetor + " elementos (" + distribuicao + ", semente " + semente +
+                ") em " + String.format("%.2f", tempoGeracao) + " ms");
         
         // Conectar com todos os servidores
         List<Conexao> conexoes = new ArrayList<Conexao>();
         for (String servidor : servidores) {
-            String[] partes = servidor.split(":");
-            String host = partes[0];
-            int porta = Integer.parseInt(partes[1]);
-            
-            Conexao conexao = new Conexao(host, porta);
+            Conexao conexao = new Conexao(servidor);
             conexao.conectar();
             conexoes.add(conexao);
         }
         
         Log.info("D", "Conectado a " + conexoes.size() + " servidor(es)");
         
-        // Executar a ordenação distribuída
-        executarOrdenacao(conexoes, vetor);
+        // O merge local também é medido: esperar o kernel SIMD terminar de aquecer
+        KernelOrdenacao.aguardarAquecimento();
+        
+        // Executar o modo escolhido
+        if (modo.equals("topk")) {
+            executarTopK(conexoes, vetor, k, maiores);
+        } else if (modo.equals("kesimo")) {
+            if (percentil >= 0) {
+                // Percentil P = K-ésimo menor com K = teto(P% de n)
+                k = (int) Math.ceil(percentil / 100.0 * vetor.length);
+                k = Math.max(1, Math.min(k, vetor.length));
+            }
+            executarKesimo(conexoes, vetor, k);
+        } else if (modo.equals("intervalo")) {
+            executarIntervalo(conexoes, vetor, de, ate);
+        } else if (modo.equals("histograma")) {
+            executarHistograma(conexoes, vetor, faixas, de, ate);
+        } else {
+            // Executar a ordenação distribuída (repetida, se pedido)
+            int[] tamanhosAnteriores = null;
+            for (int r = 1; r <= repeticoes; r++) {
+                if (repeticoes > 1) {
+                    Log.info("D", "— Execução " + r + " de " + repeticoes + " —");
+                }
+                
+                // Consultar a capacidade antes de cada execução (ela muda com a carga)
+                int[] tamanhos = null;
+                if (usarPesos) {
+                    tamanhos = consultarCapacidades(conexoes, vetor.length, tamanhosAnteriores);
+                    tamanhosAnteriores = tamanhos;
+                }
+                
+                executarOrdenacao(conexoes, vetor, algoritmo, usarHash, tamanhos);
+            }
+        }
         
         // Encerrar conexões
         Log.info("D", "Encerrando conexões...");
@@ -99,12 +221,16 @@ public class Distribuidor {
     /**
      * Executa a ordenação distribuída.
      * Divide o vetor, envia para servidores, recebe resultados e faz merge.
+     * @param tamanhos tamanho da parte de cada servidor (null para partes iguais)
      */
-    private static void executarOrdenacao(List<Conexao> conexoes, int[] vetor) throws Exception {
+    private static void executarOrdenacao(List<Conexao> conexoes, int[] vetor, Pedido.Algoritmo algoritmo,
+                                          boolean usarHash, int[] tamanhos) throws Exception {
         Log.info("D", "Iniciando ordenação distribuída...");
         
         int numServidores = conexoes.size();
-        int tamanhoParte = vetor.length / numServidores;  // tamanho de cada parte
+        if (tamanhos == null) {
+            tamanhos = tamanhosIguais(vetor.length, numServidores);
+        }
         
         // Array para guardar as partes ordenadas que vêm dos servidores
         int[][] partesOrdenadas = new int[numServidores][];
@@ -116,18 +242,14 @@ public class Distribuidor {
         long tempoInicio = System.nanoTime();
         
         // Para cada servidor, criar uma thread que envia uma parte do vetor
+        int proximoInicio = 0;
         for (int i = 0; i < numServidores; i++) {
             final int indiceServidor = i;
             
             // Calcular qual parte do vetor este servidor vai ordenar
-            int inicio = i * tamanhoParte;
-            int fim;
-            if (i == numServidores - 1) {
-                // Último servidor pega o resto (caso a divisão não seja exata)
-                fim = vetor.length;
-            } else {
-                fim = inicio + tamanhoParte;
-            }
+            int inicio = proximoInicio;
+            int fim = inicio + tamanhos[i];
+            proximoInicio = fim;
             
             // Copiar a parte do vetor para um novo array
             int[] parte = new int[fim - inicio];
@@ -144,10 +266,10 @@ public class Distribuidor {
                 public void run() {
                     try {
                         // Criar pedido com a parte do vetor
-                        Pedido pedido = new Pedido(parteFinal);
+                        Pedido pedido = new Pedido(parteFinal, algoritmo);
                         
                         // Enviar pedido e receber resposta
-                        Resposta resposta = conexao.enviarPedido(pedido);
+                        Resposta resposta = conexao.enviarPedido(pedido, usarHash);
                         
                         if (resposta != null && resposta.getVetorOrdenado() != null) {
                             partesOrdenadas[indiceServidor] = resposta.getVetorOrdenado();
@@ -207,20 +329,549 @@ public class Distribuidor {
             Log.info("D", "✗ ERRO: Vetor NÃO está ordenado!");
         }
         
-        // Comparar com ordenação sequencial
-        Log.info("D", "Comparando com ordenação sequencial...");
-        long tempoSeqInicio = System.nanoTime();
+        // Comparar com ordenação local (um núcleo e todos os núcleos)
+        Log.info("D", "Comparando com ordenação local...");
+        OrdenacaoSequencial.medirOrdenacoes(vetor, "D");
+    }
+    
+    /**
+     * Busca os K menores (ou maiores) elementos do vetor.
+     * Cada servidor devolve só os seus K melhores; o cliente junta
+     * essas listas pequenas e fica com os K melhores de todas.
+     */
+    private static void executarTopK(List<Conexao> conexoes, int[] vetor, int k, boolean maiores) throws Exception {
+        Log.info("D", "Buscando os " + k + (maiores ? " maiores" : " menores") + " elementos...");
         
-        int[] copia = new int[vetor.length];
-        for (int i = 0; i < vetor.length; i++) {
-            copia[i] = vetor[i];
+        int[] resultado = buscarTopK(conexoes, vetor, k, maiores);
+        if (resultado == null) {
+            Log.warn("D", "Top-" + k + " não calculado: faltou a resposta de algum servidor");
+            return;
+        }
+        
+        // Conferir com o vetor ordenado localmente
+        int[] referencia = ordenarReferencia(vetor);
+        int inicio = maiores ? referencia.length - resultado.length : 0;
+        boolean correto = resultado.length == Math.min(k, vetor.length)
+                && Arrays.equals(resultado, Arrays.copyOfRange(referencia, inicio, inicio + resultado.length));
+        
+        Log.info("D", "Top-" + k + ": " + resumir(resultado));
+        verificar(correto);
+    }
+    
+    /**
+     * Busca o K-ésimo menor elemento do vetor (K começa em 1) por seleção distribuída.
+     * 
+     * Em cada rodada, os servidores contam quantos elementos da sua parte caem
+     * em cada uma de FAIXAS_SELECAO faixas do intervalo ainda em disputa. O
+     * cliente soma as contagens, acha a faixa onde está o K-ésimo e a próxima
+     * rodada conta só dentro dela. Quando sobram até LIMITE_CANDIDATOS
+     * elementos, os servidores devolvem só esses candidatos, e o K-ésimo sai deles.
+     * As partes só trafegam na primeira rodada; depois ficam guardadas nos servidores.
+     */
+    private static void executarKesimo(List<Conexao> conexoes, int[] vetor, int k) throws Exception {
+        Log.info("D", "Buscando o " + k + "º menor elemento...");
+        
+        if (k < 1 || k > vetor.length) {
+            Log.warn("D", "K fora do intervalo: " + k);
+            return;
+        }
+        
+        long tempoInicio = System.nanoTime();
+        
+        int[][] partes = dividirVetor(vetor, conexoes.size());
+        Comunicado[] pedidos = new Comunicado[partes.length];
+        
+        // Intervalo de valores em disputa e quantos elementos ficaram abaixo dele
+        int minimo = Integer.MIN_VALUE;
+        int maximo = Integer.MAX_VALUE;
+        long abaixo = 0;
+        long candidatos = vetor.length;
+        int rodada = 0;
+        
+        while (candidatos > LIMITE_CANDIDATOS && minimo < maximo) {
+            rodada++;
+            for (int i = 0; i < partes.length; i++) {
+                // A parte só vai na primeira rodada
+                pedidos[i] = new PedidoSelecao(rodada == 1 ? partes[i] : null, minimo, maximo, FAIXAS_SELECAO);
+            }
+            Object[] respostas = enviarParaTodos(conexoes, pedidos);
+            
+            // Somar as contagens de todos os servidores
+            long[] contagens = new long[FAIXAS_SELECAO];
+            for (int i = 0; i < respostas.length; i++) {
+                if (!(respostas[i] instanceof RespostaHistograma)
+                        || ((RespostaHistograma) respostas[i]).getContagens().length != FAIXAS_SELECAO) {
+                    Log.warn("D", "K-ésimo não calculado: sem resposta válida do servidor " + i);
+                    return;
+                }
+                long[] parcial = ((RespostaHistograma) respostas[i]).getContagens();
+                for (int f = 0; f < FAIXAS_SELECAO; f++) {
+                    contagens[f] += parcial[f];
+                }
+            }
+            
+            // Achar a faixa que contém o K-ésimo
+            int faixa = 0;
+            while (faixa < FAIXAS_SELECAO - 1 && abaixo + contagens[faixa] < k) {
+                abaixo += contagens[faixa];
+                faixa++;
+            }
+            candidatos = contagens[faixa];
+            
+            // Limites da faixa (mesma conta do PedidoHistograma)
+            long largura = (long) maximo - minimo + 1;
+            long inicioFaixa = minimo + (largura * faixa + FAIXAS_SELECAO - 1) / FAIXAS_SELECAO;
+            long fimFaixa = minimo + (largura * (faixa + 1) + FAIXAS_SELECAO - 1) / FAIXAS_SELECAO - 1;
+            minimo = (int) inicioFaixa;
+            maximo = (int) fimFaixa;
+            
+            Log.info("D", "Rodada " + rodada + ": K-ésimo em [" + minimo + ", " + maximo + "] com " +
+                    candidatos + " candidatos");
+        }
+        
+        int valor;
+        long recebidos = 0;
+        if (minimo == maximo) {
+            // Só sobrou um valor possível: não precisa buscar os candidatos
+            valor = minimo;
+        } else {
+            // Buscar só os candidatos (na primeira rodada, se o vetor já for pequeno, com as partes)
+            for (int i = 0; i < partes.length; i++) {
+                pedidos[i] = rodada == 0
+                        ? new PedidoIntervalo(partes[i], minimo, maximo)
+                        : new PedidoSelecao(minimo, maximo);
+            }
+            Object[] respostas = enviarParaTodos(conexoes, pedidos);
+            if (!todasRespostas(respostas)) {
+                Log.warn("D", "K-ésimo não calculado: faltou a resposta de algum servidor");
+                return;
+            }
+            
+            int[] juntos = fazerMergeMultiplos(extrairVetores(respostas));
+            recebidos = juntos.length;
+            int posicao = (int) (k - abaixo - 1);
+            if (posicao < 0 || posicao >= juntos.length) {
+                Log.warn("D", "K-ésimo não calculado: candidatos incompletos (" + juntos.length + " recebidos)");
+                return;
+            }
+            valor = juntos[posicao];
+        }
+        
+        double tempo = (System.nanoTime() - tempoInicio) / 1_000_000.0;
+        Log.info("D", "Tempo distribuído: " + String.format("%.2f", tempo) + " ms" +
+                " (" + rodada + " rodada(s) de contagem, recebidos " + recebidos + " candidatos)");
+        
+        // Conferir com o vetor ordenado localmente
+        int[] referencia = ordenarReferencia(vetor);
+        
+        Log.info("D", k + "º menor elemento: " + valor);
+        verificar(valor == referencia[k - 1]);
+    }
+    
+    /**
+     * Busca os elementos com valor entre 'de' e 'ate' (inclusivos), em ordem.
+     * Cada servidor filtra e ordena só os elementos da sua parte que estão no intervalo.
+     */
+    private static void executarIntervalo(List<Conexao> conexoes, int[] vetor, int de, int ate) throws Exception {
+        Log.info("D", "Buscando elementos no intervalo [" + de + ", " + ate + "]...");
+        
+        long tempoInicio = System.nanoTime();
+        
+        int[][] partes = dividirVetor(vetor, conexoes.size());
+        Comunicado[] pedidos = new Comunicado[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            pedidos[i] = new PedidoIntervalo(partes[i], de, ate);
+        }
+        
+        Object[] respostas = enviarParaTodos(conexoes, pedidos);
+        if (!todasRespostas(respostas)) {
+            Log.warn("D", "Intervalo não calculado: faltou a resposta de algum servidor");
+            return;
+        }
+        
+        int[] resultado = fazerMergeMultiplos(extrairVetores(respostas));
+        
+        double tempo = (System.nanoTime() - tempoInicio) / 1_000_000.0;
+        Log.info("D", "Tempo distribuído: " + String.format("%.2f", tempo) + " ms");
+        
+        // Conferir com o vetor ordenado localmente
+        int[] referencia = ordenarReferencia(vetor);
+        int quantidade = 0;
+        for (int i = 0; i < referencia.length; i++) {
+            if (referencia[i] >= de && referencia[i] <= ate) {
+                quantidade++;
+            }
+        }
+        
+        boolean correto = resultado.length == quantidade;
+        for (int i = 1; i < resultado.length && correto; i++) {
+            correto = resultado[i - 1] <= resultado[i];
+        }
+        
+        Log.info("D", "Elementos no intervalo: " + resultado.length + " — " + resumir(resultado));
+        verificar(correto);
+    }
+    
+    /**
+     * Calcula o histograma do vetor com 'faixas' faixas entre 'de' e 'ate'.
+     * Cada servidor devolve só as contagens; o cliente soma as contagens de todos.
+     */
+    private static void executarHistograma(List<Conexao> conexoes, int[] vetor, int faixas, int de, int ate) throws Exception {
+        Log.info("D", "Calculando histograma com " + faixas + " faixas em [" + de + ", " + ate + "]...");
+        
+        long tempoInicio = System.nanoTime();
+        
+        int[][] partes = dividirVetor(vetor, conexoes.size());
+        Comunicado[] pedidos = new Comunicado[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            pedidos[i] = new PedidoHistograma(partes[i], de, ate, faixas);
+        }
+        
+        Object[] respostas = enviarParaTodos(conexoes, pedidos);
+        
+        // Somar as contagens de todos os servidores (sem somar nada se faltar algum)
+        long[] contagens = new long[faixas];
+        for (int i = 0; i < respostas.length; i++) {
+            if (!(respostas[i] instanceof RespostaHistograma)
+                    || ((RespostaHistograma) respostas[i]).getContagens().length != faixas) {
+                Log.warn("D", "Sem resposta válida do servidor " + i);
+                Log.warn("D", "Histograma não calculado: faltou a resposta de algum servidor");
+                return;
+            }
+            long[] parcial = ((RespostaHistograma) respostas[i]).getContagens();
+            for (int f = 0; f < faixas; f++) {
+                contagens[f] += parcial[f];
+            }
+        }
+        
+        double tempo = (System.nanoTime() - tempoInicio) / 1_000_000.0;
+        Log.info("D", "Tempo distribuído: " + String.format("%.2f", tempo) + " ms");
+        
+        // Mostrar o histograma
+        long largura = (long) ate - de + 1;
+        for (int f = 0; f < faixas; f++) {
+            long inicioFaixa = de + (largura * f + faixas - 1) / faixas;
+            long fimFaixa = de + (largura * (f + 1) + faixas - 1) / faixas - 1;
+            Log.info("D", "  [" + inicioFaixa + ", " + fimFaixa + "]: " + contagens[f]);
+        }
+        
+        // Conferir com o cálculo local
+        long[] referencia = new PedidoHistograma(vetor, de, ate, faixas).calcular().getContagens();
+        verificar(Arrays.equals(contagens, referencia));
+    }
+    
+    /**
+     * Pede os K menores (ou maiores) de cada parte e junta os resultados.
+     * @return os K menores (ou maiores) do vetor inteiro, em ordem crescente,
+     *         ou null se algum servidor não respondeu (o resultado estaria incompleto)
+     */
+    private static int[] buscarTopK(List<Conexao> conexoes, int[] vetor, int k, boolean maiores) throws Exception {
+        long tempoInicio = System.nanoTime();
+        
+        int[][] partes = dividirVetor(vetor, conexoes.size());
+        Comunicado[] pedidos = new Comunicado[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            pedidos[i] = new PedidoTopK(partes[i], k, maiores);
+        }
+        
+        Object[] respostas = enviarParaTodos(conexoes, pedidos);
+        if (!todasRespostas(respostas)) {
+            return null;
+        }
+        
+        // Cada servidor manda no máximo K elementos ordenados: basta juntar e cortar
+        int[] juntos = fazerMergeMultiplos(extrairVetores(respostas));
+        int quantidade = Math.min(k, juntos.length);
+        int[] resultado;
+        if (maiores) {
+            resultado = Arrays.copyOfRange(juntos, juntos.length - quantidade, juntos.length);
+        } else {
+            resultado = Arrays.copyOf(juntos, quantidade);
+        }
+        
+        double tempo = (System.nanoTime() - tempoInicio) / 1_000_000.0;
+        Log.info("D", "Tempo distribuído: " + String.format("%.2f", tempo) + " ms" +
+                " (recebidos " + juntos.length + " elementos no total)");
+        
+        return resultado;
+    }
+    
+    /**
+     * Divide o vetor em partes de tamanho igual (a última pega o resto).
+     */
+    private static int[][] dividirVetor(int[] vetor, int numPartes) {
+        int[] tamanhos = tamanhosIguais(vetor.length, numPartes);
+        int[][] partes = new int[numPartes][];
+        int inicio = 0;
+        for (int i = 0; i < numPartes; i++) {
+            partes[i] = Arrays.copyOfRange(vetor, inicio, inicio + tamanhos[i]);
+            inicio += tamanhos[i];
+        }
+        return partes;
+    }
+    
+    /**
+     * Tamanhos de partes iguais (a última pega o resto da divisão).
+     */
+    private static int[] tamanhosIguais(int total, int numPartes) {
+        int tamanhoParte = total / numPartes;
+        int[] tamanhos = new int[numPartes];
+        for (int i = 0; i < numPartes; i++) {
+            tamanhos[i] = (i == numPartes - 1) ? total - tamanhoParte * (numPartes - 1) : tamanhoParte;
+        }
+        return tamanhos;
+    }
+    
+    /**
+     * Pergunta a capacidade de cada servidor e calcula o tamanho da parte de cada um.
+     * 
+     * O peso de cada servidor é a vazão recente de ordenação dividida por
+     * (1 + pedidos em andamento). Enquanto algum servidor ainda não tiver vazão
+     * medida, todos começam com o mesmo peso: o receptor ordena cada pedido em
+     * uma thread só, então o número de núcleos não diz quanto ele é mais rápido.
+     * Nenhum servidor recebe mais elementos do que cabe na sua memória livre.
+     * 
+     * Se a nova divisão ficar perto da anterior (TOLERANCIA_PESOS) e a anterior
+     * ainda couber na memória, a anterior é mantida: mudar as fronteiras das partes
+     * muda o hash de todas elas e o cache do servidor (--hash) nunca acertaria.
+     * @param anteriores tamanhos usados na execução anterior (null na primeira)
+     * @return o tamanho da parte de cada servidor
+     */
+    private static int[] consultarCapacidades(List<Conexao> conexoes, int total, int[] anteriores) throws Exception {
+        int numServidores = conexoes.size();
+        
+        Comunicado[] pedidos = new Comunicado[numServidores];
+        for (int i = 0; i < numServidores; i++) {
+            pedidos[i] = new PedidoCapacidade();
+        }
+        Object[] respostas = enviarParaTodos(conexoes, pedidos);
+        
+        // Só usar a vazão se todos os servidores já tiverem uma medida
+        boolean todosComVazao = true;
+        for (int i = 0; i < numServidores; i++) {
+            if (!(respostas[i] instanceof RespostaCapacidade) || ((RespostaCapacidade) respostas[i]).getVazao() <= 0) {
+                todosComVazao = false;
+            }
+        }
+        
+        double[] pesos = new double[numServidores];
+        long[] limites = new long[numServidores];
+        for (int i = 0; i < numServidores; i++) {
+            if (respostas[i] instanceof RespostaCapacidade) {
+                RespostaCapacidade capacidade = (RespostaCapacidade) respostas[i];
+                Log.info("D", "Capacidade de " + conexoes.get(i) + ": " + capacidade);
+                
+                double base = todosComVazao ? capacidade.getVazao() : 1;
+                pesos[i] = Math.max(base, 1e-9) / (1 + capacidade.getPedidosEmAndamento());
+                limites[i] = capacidade.getMemoriaLivre() / BYTES_POR_ELEMENTO;
+            } else {
+                // Servidor não respondeu: usar o peso de um servidor sem medida
+                Log.warn("D", "Capacidade desconhecida de " + conexoes.get(i) + ", usando peso mínimo");
+                pesos[i] = 1;
+                limites[i] = Long.MAX_VALUE;
+            }
         }
-        Arrays.sort(copia);
         
-        long tempoSeqFim = System.nanoTime();
-        double tempoSequencial = (tempoSeqFim - tempoSeqInicio) / 1_000_000.0;
+        int[] tamanhos = calcularTamanhos(total, pesos, limites);
         
+        for (int i = 0; i < numServidores; i++) {
+            Log.info("D", "Parte de " + conexoes.get(i) + ": " + tamanhos[i] + " elementos" +
+                    " (peso " + String.format("%.1f", pesos[i]) + (todosComVazao ? ", pela vazão)" : ", igual até medir a vazão)"));
+        }
+        
+        if (anteriores != null && divisaoParecida(anteriores, tamanhos, limites)) {
+            Log.info("D", "Divisão mudou menos de " + Math.round(TOLERANCIA_PESOS * 100) +
+                    "%: mantendo a divisão anterior (as partes repetem o hash)");
+            return anteriores;
+        }
+        
+        return tamanhos;
+    }
+    
+    /**
+     * Indica se a divisão anterior pode continuar sendo usada: cada parte nova
+     * difere da anterior em no máximo TOLERANCIA_PESOS e a anterior cabe nos limites.
+     */
+    private static boolean divisaoParecida(int[] anteriores, int[] novos, long[] limites) {
+        if (anteriores.length != novos.length) {
+            return false;
+        }
+        for (int i = 0; i < novos.length; i++) {
+            if (anteriores[i] > limites[i]) {
+                return false;
+            }
+            if (Math.abs(novos[i] - anteriores[i]) > TOLERANCIA_PESOS * anteriores[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Divide 'total' elementos proporcionalmente aos pesos, sem passar dos limites.
+     * Quem passaria do limite fica com o limite e o que sobra é redividido entre os outros.
+     * Se todos estiverem no limite, o que sobra é dividido entre todos pelos pesos.
+     */
+    private static int[] calcularTamanhos(int total, double[] pesos, long[] limites) {
+        int numPartes = pesos.length;
+        int[] tamanhos = new int[numPartes];
+        boolean[] limitado = new boolean[numPartes];
+        int restante = total;
+        
+        // Fixar no limite quem não comporta a sua parte proporcional
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            double soma = 0;
+            for (int i = 0; i < numPartes; i++) {
+                if (!limitado[i]) {
+                    soma += pesos[i];
+                }
+            }
+            for (int i = 0; i < numPartes; i++) {
+                if (!limitado[i] && soma > 0 && restante * pesos[i] / soma > limites[i]) {
+                    tamanhos[i] = (int) limites[i];
+                    limitado[i] = true;
+                    restante -= tamanhos[i];
+                    mudou = true;
+                }
+            }
+        }
+        
+        boolean algumLivre = false;
+        for (int i = 0; i < numPartes; i++) {
+            if (!limitado[i]) {
+                algumLivre = true;
+            }
+        }
+        
+        // Dividir o restante pelos pesos entre os que ainda têm espaço
+        double soma = 0;
+        int maisPesado = -1;
+        for (int i = 0; i < numPartes; i++) {
+            if (!algumLivre || !limitado[i]) {
+                soma += pesos[i];
+                if (maisPesado < 0 || pesos[i] > pesos[maisPesado]) {
+                    maisPesado = i;
+                }
+            }
+        }
+        
+        int distribuido = 0;
+        for (int i = 0; i < numPartes; i++) {
+            if (!algumLivre || !limitado[i]) {
+                int parte = (int) (restante * pesos[i] / soma);
+                tamanhos[i] += parte;
+                distribuido += parte;
+            }
+        }
+        
+        // Sobra do arredondamento vai para o servidor de maior peso
+        tamanhos[maisPesado] += restante - distribuido;
+        
+        return tamanhos;
+    }
+    
+    /**
+     * Envia um pedido para cada servidor em paralelo (uma thread por servidor)
+     * e espera todas as respostas.
+     * @return a resposta de cada servidor (null se deu erro)
+     */
+    private static Object[] enviarParaTodos(List<Conexao> conexoes, Comunicado[] pedidos) throws InterruptedException {
+        int numServidores = conexoes.size();
+        Object[] respostas = new Object[numServidores];
+        Thread[] threads = new Thread[numServidores];
+        
+        for (int i = 0; i < numServidores; i++) {
+            final int indiceServidor = i;
+            final Conexao conexao = conexoes.get(i);
+            final Comunicado pedido = pedidos[i];
+            
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        respostas[indiceServidor] = conexao.enviar(pedido);
+                    } catch (Exception e) {
+                        Log.error("D", "Erro ao comunicar com servidor " + indiceServidor, e);
+                    }
+                }
+            });
+            
+            threads[i].start();
+        }
+        
+        // Aguardar todas as threads terminarem
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        return respostas;
+    }
+    
+    /**
+     * Confere se todos os servidores mandaram uma Resposta válida.
+     */
+    private static boolean todasRespostas(Object[] respostas) {
+        for (int i = 0; i < respostas.length; i++) {
+            if (!(respostas[i] instanceof Resposta) || ((Resposta) respostas[i]).getVetorOrdenado() == null) {
+                Log.warn("D", "Sem resposta válida do servidor " + i);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Extrai os vetores das respostas (vetor vazio quando a resposta é inválida).
+     */
+    private static int[][] extrairVetores(Object[] respostas) {
+        int[][] vetores = new int[respostas.length][];
+        for (int i = 0; i < respostas.length; i++) {
+            if (respostas[i] instanceof Resposta && ((Resposta) respostas[i]).getVetorOrdenado() != null) {
+                vetores[i] = ((Resposta) respostas[i]).getVetorOrdenado();
+            } else {
+                Log.warn("D", "Resposta inválida do servidor " + i);
+                vetores[i] = new int[0];
+            }
+        }
+        return vetores;
+    }
+    
+    /**
+     * Ordena uma cópia do vetor localmente (Arrays.sort) para conferir os resultados.
+     */
+    private static int[] ordenarReferencia(int[] vetor) {
+        long tempoSeqInicio = System.nanoTime();
+        
+        int[] copia = Arrays.copyOf(vetor, vetor.length);
+        Arrays.sort(copia);
+        
+        double tempoSequencial = (System.nanoTime() - tempoSeqInicio) / 1_000_000.0;
         Log.info("D", "Tempo sequencial (Arrays.sort): " + String.format("%.2f", tempoSequencial) + " ms");
+        
+        return copia;
+    }
+    
+    /**
+     * Mostra se o resultado confere com o cálculo local.
+     */
+    private static void verificar(boolean correto) {
+        if (correto) {
+            Log.info("D", "✓ Resultado confere com o cálculo sequencial!");
+        } else {
+            Log.info("D", "✗ ERRO: Resultado NÃO confere com o cálculo sequencial!");
+        }
+    }
+    
+    /**
+     * Mostra os primeiros elementos de um vetor (para não lotar o log).
+     */
+    private static String resumir(int[] vetor) {
+        if (vetor.length <= 20) {
+            return Arrays.toString(vetor);
+        }
+        return Arrays.toString(Arrays.copyOf(vetor, 20)).replace("]", ", ...]");
     }
     
     /**
@@ -266,35 +917,10 @@ public class Distribuidor {
         // Criar array resultado com tamanho total
         int[] resultado = new int[vetor1.length + vetor2.length];
         
-        int i = 0;  // índice para vetor1
-        int j = 0;  // índice para vetor2
-        int k = 0;  // índice para resultado
-        
-        // Comparar elementos e colocar o menor no resultado
-        while (i < vetor1.length && j < vetor2.length) {
-            if (vetor1[i] <= vetor2[j]) {
-                resultado[k] = vetor1[i];
-                i++;
-            } else {
-                resultado[k] = vetor2[j];
-                j++;
-            }
-            k++;
-        }
-        
-        // Copiar elementos restantes do vetor1 (se houver)
-        while (i < vetor1.length) {
-            resultado[k] = vetor1[i];
-            i++;
-            k++;
-        }
-        
-        // Copiar elementos restantes do vetor2 (se houver)
-        while (j < vetor2.length) {
-            resultado[k] = vetor2[j];
-            j++;
-            k++;
-        }
+        // Merge sem desvios (ver KernelOrdenacao)
+        KernelOrdenacao.intercalar(vetor1, 0, vetor1.length,
+                                   vetor2, 0, vetor2.length,
+                                   resultado, 0);
         
         return resultado;
     }
@@ -303,55 +929,82 @@ public class Distribuidor {
      * Classe interna para gerenciar conexão com um servidor.
      */
     private static class Conexao {
-        private String host;
-        private int porta;
-        private Socket socket;
-        private ObjectOutputStream saida;
-        private ObjectInputStream entrada;
+        private String endereco;
+        private Transporte transporte;
         
-        public Conexao(String host, int porta) {
-            this.host = host;
-            this.porta = porta;
+        /**
+         * Construtor.
+         * @param endereco "host:porta" (TCP), "unix:/caminho" (socket Unix)
+         *                 ou "local"/"local:nome" (receptor na própria JVM)
+         */
+        public Conexao(String endereco) {
+            this.endereco = endereco;
         }
         
         /**
-         * Conecta com o servidor.
+         * Conecta com o servidor, escolhendo o transporte pelo endereço.
          */
         public void conectar() throws IOException {
-            socket = new Socket(host, porta);
-            saida = new ObjectOutputStream(socket.getOutputStream());
-            entrada = new ObjectInputStream(socket.getInputStream());
-            Log.info("D", "Conectado a " + host + ":" + porta);
+            if (endereco.startsWith("unix:")) {
+                transporte = TransporteStream.unix(endereco.substring("unix:".length()));
+            } else if (endereco.equals("local") || endereco.startsWith("local:")) {
+                transporte = new TransporteLocal(endereco);
+            } else {
+                String[] partes = endereco.split(":");
+                transporte = TransporteStream.tcp(partes[0], Integer.parseInt(partes[1]));
+            }
+            Log.info("D", "Conectado a " + endereco);
         }
         
         /**
          * Envia um pedido e recebe a resposta.
          */
         public Resposta enviarPedido(Pedido pedido) throws IOException, ClassNotFoundException {
+            return enviarPedido(pedido, false);
+        }
+        
+        /**
+         * Envia um pedido e recebe a resposta.
+         * Se usarHash for true, manda antes só o hash do vetor; o vetor completo
+         * só é enviado se o servidor não tiver o resultado no cache.
+         */
+        public Resposta enviarPedido(Pedido pedido, boolean usarHash) throws IOException, ClassNotFoundException {
             synchronized (this) {
-                // Enviar pedido
-                saida.writeObject(pedido);
-                saida.flush();
+                if (usarHash) {
+                    Object respostaHash = enviar(new PedidoHash(pedido.getHash(), pedido.getTamanho()));
+                    if (respostaHash instanceof Resposta) {
+                        Log.info("D", "Resultado já estava no cache de " + endereco);
+                        return (Resposta) respostaHash;
+                    }
+                }
                 
-                // Receber resposta
-                Object resposta = entrada.readObject();
+                // Enviar pedido e receber resposta
+                Object resposta = enviar(pedido);
                 
                 if (resposta instanceof Resposta) {
                     return (Resposta) resposta;
                 } else {
-                    Log.warn("D", "Resposta inesperada de " + host + ":" + porta);
+                    Log.warn("D", "Resposta inesperada de " + endereco);
                     return null;
                 }
             }
         }
         
+        /**
+         * Envia qualquer comunicado e devolve o objeto recebido como resposta.
+         */
+        public Object enviar(Comunicado comunicado) throws IOException, ClassNotFoundException {
+            synchronized (this) {
+                return transporte.enviar(comunicado);
+            }
+        }
+        
         /**
          * Envia sinal de encerramento.
          */
         public void enviarEncerramento() throws IOException {
             synchronized (this) {
-                saida.writeObject(new ComunicadoEncerramento());
-                saida.flush();
+                transporte.enviarSemResposta(new ComunicadoEncerramento());
             }
         }
         
@@ -359,19 +1012,13 @@ public class Distribuidor {
          * Fecha a conexão.
          */
         public void fechar() {
-            try {
-                if (entrada != null) entrada.close();
-                if (saida != null) saida.close();
-                if (socket != null) socket.close();
-            } catch (IOException e) {
-                // Ignorar erros ao fechar
-            }
-            Log.info("D", "Conexão fechada: " + host + ":" + porta);
+            if (transporte != null) transporte.fechar();
+            Log.info("D", "Conexão fechada: " + endereco);
         }
         
         @Override
         public String toString() {
-            return host + ":" + porta;
+            return endereco;
         }
     }
 }
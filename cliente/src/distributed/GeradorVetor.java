@@ -0,0 +1,135 @@
+package distributed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gera vetores de teste em paralelo, de forma reproduzível.
+ *
+ * O vetor é dividido em blocos de tamanho fixo e cada bloco tem seu próprio
+ * SplittableRandom, derivado da semente na ordem dos blocos. Assim os blocos
+ * podem ser preenchidos por várias threads sem disputar um Random compartilhado,
+ * e a mesma semente sempre gera o mesmo vetor, com qualquer número de núcleos.
+ */
+public final class GeradorVetor {
+    
+    /**
+     * Distribuições de valores disponíveis.
+     * UNIFORME: de -100 a 100 (padrão, muitos valores repetidos)
+     * AMPLA: qualquer valor int
+     * ORDENADO: já em ordem crescente
+     * QUASE_ORDENADO: crescente, com 1% dos elementos trocados por valores aleatórios
+     * DECRESCENTE: em ordem decrescente
+     * GAUSSIANA: distribuição normal com média 0 e desvio padrão 1000
+     */
+    public enum Distribuicao {
+        UNIFORME,
+        AMPLA,
+        ORDENADO,
+        QUASE_ORDENADO,
+        DECRESCENTE,
+        GAUSSIANA
+    }
+    
+    // Tamanho de cada bloco (fixo, para o resultado não depender do número de núcleos)
+    private static final int TAMANHO_BLOCO = 1 << 16;
+    
+    // Construtor privado para não permitir criar instâncias
+    private GeradorVetor() {
+    }
+    
+    /**
+     * Converte o nome da linha de comando (ex: "quase-ordenado") em Distribuicao.
+     * @param nome o nome da distribuição
+     * @return a distribuição
+     */
+    public static Distribuicao distribuicao(String nome) {
+        return Distribuicao.valueOf(nome.trim().toUpperCase().replace('-', '_'));
+    }
+    
+    /**
+     * Gera um vetor usando todos os núcleos da máquina.
+     * @param tamanho tamanho do vetor
+     * @param semente semente do gerador (mesma semente = mesmo vetor)
+     * @param distribuicao distribuição dos valores
+     * @return o vetor gerado
+     */
+    public static int[] gerar(int tamanho, long semente, Distribuicao distribuicao) throws Exception {
+        final int[] vetor = new int[tamanho];
+        int numBlocos = (tamanho + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        
+        // Criar um gerador por bloco, sempre na mesma ordem (garante reprodutibilidade)
+        SplittableRandom raiz = new SplittableRandom(semente);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> tarefas = new ArrayList<Future<?>>();
+            for (int b = 0; b < numBlocos; b++) {
+                final SplittableRandom random = raiz.split();
+                final int inicio = b * TAMANHO_BLOCO;
+                final int fim = Math.min(tamanho, inicio + TAMANHO_BLOCO);
+                final Distribuicao dist = distribuicao;
+                
+                tarefas.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        preencher(vetor, inicio, fim, random, dist);
+                    }
+                }));
+            }
+            
+            // Aguardar todos os blocos (get() repassa erros das threads)
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        return vetor;
+    }
+    
+    /**
+     * Preenche vetor[inicio..fim) de acordo com a distribuição.
+     */
+    private static void preencher(int[] vetor, int inicio, int fim, SplittableRandom random, Distribuicao distribuicao) {
+        int tamanho = vetor.length;
+        
+        switch (distribuicao) {
+            case AMPLA:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = random.nextInt();
+                }
+                break;
+            case ORDENADO:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = i;
+                }
+                break;
+            case QUASE_ORDENADO:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = (random.nextInt(100) == 0) ? random.nextInt(tamanho) : i;
+                }
+                break;
+            case DECRESCENTE:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = tamanho - i;
+                }
+                break;
+            case GAUSSIANA:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = (int) Math.round(random.nextGaussian() * 1000);
+                }
+                break;
+            default:
+                for (int i = inicio; i < fim; i++) {
+                    vetor[i] = random.nextInt(201) - 100;  // números de -100 a 100
+                }
+                break;
+        }
+    }
+}
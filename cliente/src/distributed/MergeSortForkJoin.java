@@ -0,0 +1,79 @@
+package distributed;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge Sort paralelo local usando fork/join.
+ *
+ * Serve de referência: mostra quanto se ganha ordenando com os núcleos
+ * da própria máquina, sem rede, com o mesmo algoritmo dos servidores
+ * (Merge Sort com inserção nos blocos pequenos e merge sem desvios).
+ */
+public class MergeSortForkJoin extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    
+    // Abaixo deste tamanho a tarefa não é mais dividida entre threads
+    private static final int LIMITE_PARALELO = 1 << 13;
+    
+    private final int[] vetor;
+    private final int[] auxiliar;
+    private final int inicio;
+    private final int fim;
+    
+    private MergeSortForkJoin(int[] vetor, int[] auxiliar, int inicio, int fim) {
+        this.vetor = vetor;
+        this.auxiliar = auxiliar;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+    
+    /**
+     * Ordena o vetor (no próprio vetor) usando o ForkJoinPool comum.
+     * @param vetor o vetor a ser ordenado
+     */
+    public static void ordenar(int[] vetor) {
+        int[] auxiliar = new int[vetor.length];
+        ForkJoinPool.commonPool().invoke(new MergeSortForkJoin(vetor, auxiliar, 0, vetor.length));
+    }
+    
+    @Override
+    protected void compute() {
+        if (fim - inicio <= LIMITE_PARALELO) {
+            ordenarSequencial(vetor, auxiliar, inicio, fim);
+            return;
+        }
+        
+        // Ordenar as duas metades em paralelo e depois fazer o merge
+        int meio = (inicio + fim) >>> 1;
+        invokeAll(new MergeSortForkJoin(vetor, auxiliar, inicio, meio),
+                  new MergeSortForkJoin(vetor, auxiliar, meio, fim));
+        intercalar(vetor, auxiliar, inicio, meio, fim);
+    }
+    
+    /**
+     * Merge Sort sequencial de vetor[inicio..fim).
+     */
+    private static void ordenarSequencial(int[] vetor, int[] auxiliar, int inicio, int fim) {
+        if (fim - inicio <= KernelOrdenacao.TAMANHO_BLOCO) {
+            KernelOrdenacao.ordenarBloco(vetor, inicio, fim);
+            return;
+        }
+        
+        int meio = (inicio + fim) >>> 1;
+        ordenarSequencial(vetor, auxiliar, inicio, meio);
+        ordenarSequencial(vetor, auxiliar, meio, fim);
+        intercalar(vetor, auxiliar, inicio, meio, fim);
+    }
+    
+    /**
+     * Merge de vetor[inicio..meio) com vetor[meio..fim).
+     * Cada tarefa usa só o seu trecho do auxiliar, então não há conflito entre threads.
+     */
+    private static void intercalar(int[] vetor, int[] auxiliar, int inicio, int meio, int fim) {
+        System.arraycopy(vetor, inicio, auxiliar, inicio, meio - inicio);
+        KernelOrdenacao.intercalar(auxiliar, inicio, meio,
+                                   vetor, meio, fim,
+                                   vetor, inicio);
+    }
+}
@@ -1,64 +1,94 @@
 package distributed;
 
 import java.util.Arrays;
-import java.util.Random;
 
 /**
- * Programa de referência para ordenação sequencial.
- * 
- * Este programa ordena um vetor usando Arrays.sort() (método do Java).
- * Serve para comparar o tempo de execução com a versão distribuída.
- * 
- * Uso: java OrdenacaoSequencial [TAMANHO]
- * Exemplo: java OrdenacaoSequencial 100000
+ * Programa de referência para ordenação local (sem rede).
+ *
+ * Este programa ordena o mesmo vetor de três formas:
+ * 1. Arrays.sort() - um núcleo (método do Java)
+ * 2. Arrays.parallelSort() - todos os núcleos (método do Java)
+ * 3. Merge Sort fork/join - todos os núcleos, mesmo algoritmo dos servidores
+ * Serve para comparar o tempo de execução com a versão distribuída:
+ * a distribuição só compensa se for mais rápida que usar os núcleos locais.
+ *
+ * O vetor é gerado em paralelo pelo GeradorVetor; com a mesma semente
+ * o vetor é sempre o mesmo.
+ *
+ * Uso: java OrdenacaoSequencial [TAMANHO] [--seed SEMENTE] [--dist DISTRIBUICAO]
+ * Exemplo: java OrdenacaoSequencial 100000 --seed 42 --dist quase-ordenado
  */
 public class OrdenacaoSequencial {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // Tamanho padrão do vetor
         int tamanho = 10000000;  // 10 milhões
+        long semente = System.nanoTime();
+        GeradorVetor.Distribuicao distribuicao = GeradorVetor.Distribuicao.UNIFORME;
         
-        // Ler tamanho dos argumentos (se fornecido)
+        // Ler argumentos (se fornecidos)
         for (int i = 0; i < args.length; i++) {
-            if (!args[i].startsWith("--")) {
+            if (args[i].equals("--seed")) {
+                i++;
+                semente = Long.parseLong(args[i]);
+            } else if (args[i].equals("--dist")) {
+                i++;
+                distribuicao = GeradorVetor.distribuicao(args[i]);
+            } else if (!args[i].startsWith("--")) {
                 tamanho = Integer.parseInt(args[i]);
             }
         }
         
-        Log.info("SEQ", "Gerando vetor com " + tamanho + " elementos...");
+        Log.info("SEQ", "Gerando vetor com " + tamanho + " elementos (" + distribuicao + ", semente " + semente + ")...");
         
-        // Gerar vetor aleatório
-        Random random = new Random();
-        int[] vetor = new int[tamanho];
-        for (int i = 0; i < tamanho; i++) {
-            vetor[i] = random.nextInt(201) - 100;  // números de -100 a 100
-        }
+        // Gerar vetor em paralelo
+        long inicioGeracao = System.nanoTime();
+        int[] vetor = GeradorVetor.gerar(tamanho, semente, distribuicao);
+        double tempoGeracao = (System.nanoTime() - inicioGeracao) / 1_000_000.0;
         
-        Log.info("SEQ", "Vetor gerado");
+        Log.info("SEQ", "Vetor gerado em " + String.format("%.2f", tempoGeracao) + " ms");
         
         // Medir tempo de ordenação
-        medirOrdenacao(vetor);
+        medirOrdenacoes(vetor, "SEQ");
     }
     
     /**
-     * Mede o tempo de ordenação usando Arrays.sort().
+     * Mede o tempo de ordenação local com Arrays.sort(), Arrays.parallelSort()
+     * e Merge Sort fork/join. Cada um ordena sua própria cópia do vetor.
+     * Também é usado pelo Distribuidor para comparar com a versão distribuída.
+     * @param vetor o vetor original (não é modificado)
+     * @param tag tag usada no log
      */
-    private static void medirOrdenacao(int[] vetor) {
-        // Criar cópia do vetor (para não modificar o original)
-        int[] copia = new int[vetor.length];
-        for (int i = 0; i < vetor.length; i++) {
-            copia[i] = vetor[i];
-        }
+    static void medirOrdenacoes(int[] vetor, String tag) {
+        Log.info(tag, "Núcleos locais: " + Runtime.getRuntime().availableProcessors());
         
-        // Marcar início do tempo
-        long inicio = System.nanoTime();
+        // Não medir enquanto o kernel SIMD ainda está aquecendo em outra thread
+        KernelOrdenacao.aguardarAquecimento();
+        Log.info(tag, "Kernel de ordenação: " + KernelOrdenacao.descricao());
         
-        // Ordenar usando método do Java
+        // Arrays.sort: um núcleo
+        int[] copia = Arrays.copyOf(vetor, vetor.length);
+        long inicio = System.nanoTime();
         Arrays.sort(copia);
+        mostrarResultado(tag, "Arrays.sort", copia, inicio, System.nanoTime());
         
-        // Marcar fim do tempo
-        long fim = System.nanoTime();
+        // Arrays.parallelSort: todos os núcleos
+        copia = Arrays.copyOf(vetor, vetor.length);
+        inicio = System.nanoTime();
+        Arrays.parallelSort(copia);
+        mostrarResultado(tag, "Arrays.parallelSort", copia, inicio, System.nanoTime());
         
+        // Merge Sort fork/join: todos os núcleos, mesmo algoritmo dos servidores
+        copia = Arrays.copyOf(vetor, vetor.length);
+        inicio = System.nanoTime();
+        MergeSortForkJoin.ordenar(copia);
+        mostrarResultado(tag, "Merge Sort fork/join", copia, inicio, System.nanoTime());
+    }
+    
+    /**
+     * Mostra o tempo de uma ordenação e se o vetor ficou ordenado.
+     */
+    private static void mostrarResultado(String tag, String nome, int[] copia, long inicio, long fim) {
         // Calcular tempo em milissegundos
         double tempoMs = (fim - inicio) / 1_000_000.0;
         
@@ -72,11 +102,7 @@ public class OrdenacaoSequencial {
         }
         
         // Mostrar resultado
-        Log.info("SEQ", "Tempo de ordenação: " + String.format("%.2f", tempoMs) + " ms");
-        if (estaOrdenado) {
-            Log.info("SEQ", "Vetor está ordenado corretamente");
-        } else {
-            Log.info("SEQ", "ERRO: Vetor não está ordenado!");
-        }
+        Log.info(tag, "Tempo local (" + nome + "): " + String.format("%.2f", tempoMs) + " ms" +
+                (estaOrdenado ? "" : " — ERRO: Vetor não está ordenado!"));
     }
 }
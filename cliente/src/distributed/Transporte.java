@@ -0,0 +1,32 @@
+package distributed;
+
+import java.io.IOException;
+
+/**
+ * Forma de levar os comunicados do Distribuidor até um receptor.
+ * 
+ * A Conexao só conhece esta interface, então o mesmo código de envio
+ * funciona com qualquer implementação:
+ * - TransporteStream: objetos serializados por TCP ou por socket Unix
+ * - TransporteLocal: receptor dentro da própria JVM, sem serialização
+ */
+public interface Transporte {
+    
+    /**
+     * Envia um comunicado e devolve o objeto recebido como resposta.
+     * @param comunicado o comunicado a enviar
+     * @return a resposta (null se o comunicado não tiver resposta)
+     */
+    Object enviar(Comunicado comunicado) throws IOException, ClassNotFoundException;
+    
+    /**
+     * Envia um comunicado que não tem resposta (ex: encerramento).
+     * @param comunicado o comunicado a enviar
+     */
+    void enviarSemResposta(Comunicado comunicado) throws IOException;
+    
+    /**
+     * Fecha o transporte. Erros ao fechar são ignorados.
+     */
+    void fechar();
+}
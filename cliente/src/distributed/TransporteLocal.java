@@ -0,0 +1,44 @@
+package distributed;
+
+/**
+ * Transporte para um receptor dentro da própria JVM.
+ * 
+ * Os comunicados são entregues direto ao Receptor, sem socket e sem
+ * serialização: o Pedido leva a referência do próprio array da parte do
+ * vetor, o receptor ordena esse array no lugar e a Resposta devolve o
+ * mesmo array. Útil para usar os núcleos da máquina do cliente junto
+ * com os servidores remotos.
+ * 
+ * O cache fica desligado: o array ordenado pertence a quem mandou o pedido.
+ * O buffer do pedido também não é devolvido ao PoolBuffers (não é do pool).
+ */
+public class TransporteLocal implements Transporte {
+    
+    private Receptor receptor = new Receptor(0);
+    private Receptor.Sessao sessao = new Receptor.Sessao();
+    private String nome;
+    
+    /**
+     * Construtor.
+     * @param nome nome do receptor local (usado no log)
+     */
+    public TransporteLocal(String nome) {
+        this.nome = nome;
+    }
+    
+    @Override
+    public Object enviar(Comunicado comunicado) {
+        // Processado na thread de quem chamou (cada receptor local usa a thread do seu envio)
+        return receptor.processar(comunicado, nome, sessao);
+    }
+    
+    @Override
+    public void enviarSemResposta(Comunicado comunicado) {
+        receptor.processar(comunicado, nome, sessao);
+    }
+    
+    @Override
+    public void fechar() {
+        // Nada para fechar
+    }
+}
@@ -0,0 +1,85 @@
+package distributed;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Transporte por streams de objetos (ObjectOutputStream/ObjectInputStream).
+ * 
+ * Serve tanto para TCP (Socket) quanto para socket de domínio Unix
+ * (SocketChannel com UnixDomainSocketAddress). O socket Unix só funciona
+ * com receptores na mesma máquina, mas não passa pela pilha TCP/IP.
+ */
+public class TransporteStream implements Transporte {
+    
+    // Tamanho dos buffers de entrada e saída
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    
+    private Closeable conexao;
+    private ObjectOutputStream saida;
+    private ObjectInputStream entrada;
+    
+    /**
+     * Construtor.
+     * @param entrada stream de entrada da conexão
+     * @param saida stream de saída da conexão
+     * @param conexao a conexão (fechada junto com os streams)
+     */
+    private TransporteStream(InputStream entrada, OutputStream saida, Closeable conexao) throws IOException {
+        this.conexao = conexao;
+        
+        // Os buffers juntam as escritas pequenas do ObjectOutputStream em poucas chamadas ao sistema;
+        // o flush() logo depois de criar envia o cabeçalho (senão os dois lados esperam um pelo outro)
+        this.saida = new ObjectOutputStream(new BufferedOutputStream(saida, TAMANHO_BUFFER));
+        this.saida.flush();
+        this.entrada = new ObjectInputStream(new BufferedInputStream(entrada, TAMANHO_BUFFER));
+    }
+    
+    /**
+     * Conecta por TCP.
+     * @param host endereço do servidor
+     * @param porta porta do servidor
+     */
+    public static TransporteStream tcp(String host, int porta) throws IOException {
+        Socket socket = new Socket(host, porta);
+        return new TransporteStream(socket.getInputStream(), socket.getOutputStream(), socket);
+    }
+    
+    /**
+     * Conecta por socket de domínio Unix.
+     * @param caminho caminho do arquivo do socket
+     */
+    public static TransporteStream unix(String caminho) throws IOException {
+        SocketChannel canal = SocketChannel.open(UnixDomainSocketAddress.of(caminho));
+        return new TransporteStream(Channels.newInputStream(canal), Channels.newOutputStream(canal), canal);
+    }
+    
+    @Override
+    public synchronized Object enviar(Comunicado comunicado) throws IOException, ClassNotFoundException {
+        // reset() faz o stream esquecer os objetos já enviados (senão os vetores ficam presos na memória)
+        saida.writeObject(comunicado);
+        saida.reset();
+        saida.flush();
+        
+        return entrada.readObject();
+    }
+    
+    @Override
+    public synchronized void enviarSemResposta(Comunicado comunicado) throws IOException {
+        saida.writeObject(comunicado);
+        saida.flush();
+    }
+    
+    @Override
+    public void fechar() {
+        try {
+            entrada.close();
+            saida.close();
+            conexao.close();
+        } catch (IOException e) {
+            // Ignorar erros ao fechar
+        }
+    }
+}
@@ -10,6 +10,14 @@ mkdir -p out
 echo "📦 Compilando classes compartilhadas..."
 javac -d out ../shared/src/distributed/*.java
 
+# Kernel vetorial (opcional): só se o JDK tiver o módulo jdk.incubator.vector
+if java --list-modules 2>/dev/null | grep -q "^jdk.incubator.vector"; then
+    echo "⚡ Compilando kernel vetorial (SIMD)..."
+    javac --add-modules jdk.incubator.vector -cp out -d out ../shared/src-vetorial/distributed/*.java
+else
+    echo "ℹ️  Módulo jdk.incubator.vector não encontrado: só o kernel escalar será usado"
+fi
+
 # Compilar servidor
 echo "🖥️  Compilando servidor..."
 javac -cp out -d out src/distributed/*.java
@@ -18,4 +26,5 @@ echo "✅ Servidor compilado com sucesso!"
 echo "📁 Classes em: servidor/out/distributed/"
 echo ""
 echo "🚀 Para executar:"
+echo "   (adicione --add-modules jdk.incubator.vector logo depois de 'java' para usar o kernel vetorial)"
 echo "   java -cp out:../shared/out distributed.ReceptorServer 0.0.0.0 12345"
@@ -2,6 +2,13 @@ package distributed;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Programa R (Receptor) - Servidor que recebe pedidos de ordenação.
@@ -9,100 +16,243 @@ import java.net.*;
  * Este servidor fica aguardando conexões de clientes.
  * Quando recebe um Pedido, ordena o vetor e retorna uma Resposta.
  * 
- * Uso: java ReceptorServer [host] [porta]
- * Exemplo: java ReceptorServer 0.0.0.0 12345
+ * Os vetores ordenados ficam guardados em um cache (pelo hash do conteúdo),
+ * então um vetor repetido não é ordenado de novo. O cliente também pode
+ * mandar só o hash (PedidoHash) e enviar o vetor apenas se o cache não tiver.
+ * 
+ * Quando recebe um PedidoCapacidade, informa núcleos, memória livre, vazão
+ * recente e carga atual, para o cliente dividir o vetor proporcionalmente.
+ * 
+ * O processamento dos comunicados fica na classe Receptor; aqui só fica o
+ * transporte. Se o host for "unix:/caminho", o servidor ouve em um socket
+ * de domínio Unix (para clientes na mesma máquina, sem passar pela pilha TCP).
+ * 
+ * Uso: java ReceptorServer [host] [porta] [--cache-mb MEGABYTES]
+ *      java ReceptorServer unix:/caminho/do/socket [--cache-mb MEGABYTES]
+ * Exemplo: java ReceptorServer 0.0.0.0 12345 --cache-mb 256
+ *          java ReceptorServer unix:/tmp/receptor1.sock
  */
 public class ReceptorServer {
     
+    // Tamanho dos buffers de entrada e saída de cada conexão
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    
+    // Cache, métricas e processamento, compartilhados por todas as conexões
+    private static Receptor receptor;
+    
     public static void main(String[] args) {
         // Ler parâmetros da linha de comando
         String host = "0.0.0.0";  // padrão: aceita conexões de qualquer IP
         int porta = 12345;        // padrão: porta 12345
+        int cacheMb = 128;        // padrão: 128 MB de cache (0 desliga)
         
-        if (args.length > 0) {
-            host = args[0];
+        int posicao = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--cache-mb")) {
+                i++;
+                cacheMb = Integer.parseInt(args[i]);
+            } else if (posicao == 0) {
+                host = args[i];
+                posicao++;
+            } else if (posicao == 1) {
+                porta = Integer.parseInt(args[i]);
+                posicao++;
+            }
         }
-        if (args.length > 1) {
-            porta = Integer.parseInt(args[1]);
+        
+        receptor = new Receptor(cacheMb * 1024L * 1024L);
+        
+        try {
+            if (host.startsWith("unix:")) {
+                ouvirUnix(host.substring("unix:".length()), cacheMb);
+            } else {
+                ouvirTcp(host, porta, cacheMb);
+            }
+        } catch (IOException e) {
+            Log.error("R", "Erro ao iniciar servidor", e);
         }
+    }
+    
+    /**
+     * Aceita conexões TCP em host:porta.
+     */
+    private static void ouvirTcp(String host, int porta, int cacheMb) throws IOException {
+        // Criar o socket servidor
+        ServerSocket servidor = new ServerSocket();
+        servidor.bind(new InetSocketAddress(host, porta));
+        
+        Log.info("R", "Servidor R ouvindo em " + host + ":" + porta);
+        mostrarConfiguracao(cacheMb);
         
+        // Loop infinito para aceitar múltiplas conexões
+        while (true) {
+            // Aceitar uma conexão (bloqueia até chegar um cliente)
+            Socket conexao = servidor.accept();
+            String origem = String.valueOf(conexao.getRemoteSocketAddress());
+            
+            Log.info("R", "Conexão aceita de " + origem);
+            
+            // Criar uma thread para atender este cliente
+            // Assim podemos atender múltiplos clientes ao mesmo tempo
+            Thread thread = new Thread(new Atendedor(conexao.getInputStream(), conexao.getOutputStream(),
+                    conexao, origem));
+            thread.start();
+        }
+    }
+    
+    /**
+     * Apaga o arquivo de socket deixado por um servidor que já terminou.
+     *
+     * Só apaga se o caminho for mesmo um socket e ninguém estiver ouvindo nele.
+     * Qualquer outro arquivo (ou um servidor ainda rodando) faz o servidor falhar,
+     * para não apagar um arquivo que não é dele por causa de um caminho errado.
+     */
+    private static void removerSocketAntigo(Path arquivo) throws IOException {
+        if (!Files.exists(arquivo, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        
+        if (!ehSocket(arquivo)) {
+            throw new IOException(arquivo + " já existe e não é um socket; não será apagado");
+        }
+        
+        if (alguemOuvindo(arquivo)) {
+            throw new IOException("Outro servidor já está ouvindo em " + arquivo);
+        }
+        
+        Log.warn("R", "Apagando socket abandonado " + arquivo);
+        Files.delete(arquivo);
+    }
+    
+    /**
+     * Tenta conectar no socket: se alguém aceitar, outro servidor ainda está usando o arquivo.
+     */
+    private static boolean alguemOuvindo(Path arquivo) {
         try {
-            // Criar o socket servidor
-            ServerSocket servidor = new ServerSocket();
-            servidor.bind(new InetSocketAddress(host, porta));
+            SocketChannel teste = SocketChannel.open(UnixDomainSocketAddress.of(arquivo));
+            teste.close();
+            return true;
+        } catch (IOException e) {
+            return false;  // conexão recusada: socket abandonado
+        }
+    }
+    
+    /**
+     * Indica se o arquivo é um socket (sem seguir links simbólicos).
+     * Usa o modo Unix do arquivo; se o sistema não informar, aceita só
+     * arquivos que não são comuns, diretórios nem links.
+     */
+    private static boolean ehSocket(Path arquivo) throws IOException {
+        try {
+            int modo = (Integer) Files.getAttribute(arquivo, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            return (modo & 0170000) == 0140000;  // S_IFMT == S_IFSOCK
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            return atributos.isOther();
+        }
+    }
+    
+    /**
+     * Aceita conexões em um socket de domínio Unix.
+     * O arquivo do socket é apagado antes (se sobrou de outra execução) e ao sair.
+     */
+    private static void ouvirUnix(String caminho, int cacheMb) throws IOException {
+        Path arquivo = Path.of(caminho);
+        removerSocketAntigo(arquivo);
+        
+        ServerSocketChannel servidor = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        servidor.bind(UnixDomainSocketAddress.of(arquivo));
+        arquivo.toFile().deleteOnExit();
+        
+        Log.info("R", "Servidor R ouvindo no socket Unix " + caminho);
+        mostrarConfiguracao(cacheMb);
+        
+        int numeroConexao = 0;
+        while (true) {
+            SocketChannel conexao = servidor.accept();
             
-            Log.info("R", "Servidor R ouvindo em " + host + ":" + porta);
-            Log.info("R", "Aguardando conexões de clientes...");
+            // Socket Unix não tem endereço remoto: numerar as conexões
+            numeroConexao++;
+            String origem = "unix:" + caminho + " #" + numeroConexao;
             
-            // Loop infinito para aceitar múltiplas conexões
-            while (true) {
-                // Aceitar uma conexão (bloqueia até chegar um cliente)
-                Socket conexao = servidor.accept();
-                
-                Log.info("R", "Conexão aceita de " + conexao.getRemoteSocketAddress());
-                
-                // Criar uma thread para atender este cliente
-                // Assim podemos atender múltiplos clientes ao mesmo tempo
-                Thread thread = new Thread(new Atendedor(conexao));
-                thread.start();
-            }
+            Log.info("R", "Conexão aceita de " + origem);
             
-        } catch (IOException e) {
-            Log.error("R", "Erro ao iniciar servidor", e);
+            Thread thread = new Thread(new Atendedor(Channels.newInputStream(conexao), Channels.newOutputStream(conexao),
+                    conexao, origem));
+            thread.start();
         }
     }
     
+    /**
+     * Mostra no log a configuração do cache.
+     */
+    private static void mostrarConfiguracao(int cacheMb) {
+        Log.info("R", "Cache de resultados: " + (receptor.isCacheAtivo() ? cacheMb + " MB" : "desligado"));
+        Log.info("R", "Kernel de ordenação: " + KernelOrdenacao.descricao());
+        Log.info("R", "Aguardando conexões de clientes...");
+    }
+    
     /**
      * Classe interna que atende um cliente específico.
      * Cada cliente tem sua própria thread.
+     * Funciona com qualquer par de streams (socket TCP ou socket Unix).
      */
     private static class Atendedor implements Runnable {
-        private Socket socket;
+        private InputStream entradaBruta;
+        private OutputStream saidaBruta;
+        private Closeable conexao;
+        private String origem;
         
-        public Atendedor(Socket socket) {
-            this.socket = socket;
+        public Atendedor(InputStream entrada, OutputStream saida, Closeable conexao, String origem) {
+            this.entradaBruta = entrada;
+            this.saidaBruta = saida;
+            this.conexao = conexao;
+            this.origem = origem;
         }
         
         @Override
         public void run() {
             try {
                 // Criar streams para enviar e receber objetos
-                ObjectOutputStream saida = new ObjectOutputStream(socket.getOutputStream());
-                ObjectInputStream entrada = new ObjectInputStream(socket.getInputStream());
+                // Os buffers juntam as escritas pequenas do ObjectOutputStream em poucas chamadas ao sistema;
+                // o flush() logo depois de criar envia o cabeçalho (senão os dois lados esperam um pelo outro)
+                ObjectOutputStream saida = new ObjectOutputStream(new BufferedOutputStream(saidaBruta, TAMANHO_BUFFER));
+                saida.flush();
+                ObjectInputStream entrada = new ObjectInputStream(new BufferedInputStream(entradaBruta, TAMANHO_BUFFER));
+                
+                // Estado desta conexão (ex: parte guardada pela seleção distribuída)
+                Receptor.Sessao sessao = new Receptor.Sessao();
                 
                 // Loop para receber múltiplos pedidos do mesmo cliente
                 while (true) {
                     // Ler objeto recebido
                     Object objeto = entrada.readObject();
                     
-                    // Verificar o tipo do objeto
-                    if (objeto instanceof Pedido) {
-                        // É um pedido de ordenação
-                        Pedido pedido = (Pedido) objeto;
-                        
-                        Log.info("R", "Pedido recebido de " + socket.getRemoteSocketAddress() + 
-                                " — tamanho: " + pedido.getNumeros().length);
-                        
-                        // Ordenar o vetor
-                        int[] vetorOrdenado = pedido.ordenar();
-                        
-                        // Criar resposta com o vetor ordenado
-                        Resposta resposta = new Resposta(vetorOrdenado);
-                        
-                        // Enviar resposta de volta para o cliente
-                        saida.writeObject(resposta);
-                        saida.flush();  // garantir que foi enviado
-                        
-                        Log.info("R", "Resposta enviada para " + socket.getRemoteSocketAddress());
-                        
-                    } else if (objeto instanceof ComunicadoEncerramento) {
+                    // Processar (o Receptor faz o log e decide a resposta)
+                    Comunicado resposta = receptor.processar(objeto, origem, sessao);
+                    
+                    if (objeto instanceof ComunicadoEncerramento) {
                         // Cliente quer encerrar a conexão
-                        Log.warn("R", "Encerramento recebido de " + socket.getRemoteSocketAddress());
                         break;  // sair do loop
-                        
-                    } else {
-                        // Objeto desconhecido
-                        Log.warn("R", "Objeto desconhecido recebido: " + objeto.getClass().getSimpleName());
+                    }
+                    
+                    try {
+                        if (resposta != null) {
+                            // Enviar resposta de volta para o cliente
+                            // reset() faz o stream esquecer os objetos já enviados (senão ficam presos na memória)
+                            saida.writeObject(resposta);
+                            saida.reset();
+                            saida.flush();  // garantir que foi enviado
+                        }
+                    } finally {
+                        // Resposta enviada (ou falhou): devolver o buffer do pedido ao pool
+                        // e soltar a entrada do cache usada na resposta
+                        receptor.concluir(objeto, sessao);
+                    }
+                    
+                    if (objeto instanceof Pedido) {
+                        Log.info("R", "Resposta enviada para " + origem);
                     }
                 }
                 
@@ -112,7 +262,7 @@ public class ReceptorServer {
                 
             } catch (EOFException e) {
                 // Cliente fechou a conexão normalmente
-                Log.warn("R", "Cliente fechou a conexão: " + socket.getRemoteSocketAddress());
+                Log.warn("R", "Cliente fechou a conexão: " + origem);
                 
             } catch (IOException e) {
                 Log.error("R", "Erro na conexão com cliente", e);
@@ -121,13 +271,13 @@ public class ReceptorServer {
                 Log.error("R", "Erro ao ler objeto", e);
                 
             } finally {
-                // Sempre fechar o socket, mesmo se der erro
+                // Sempre fechar a conexão, mesmo se der erro
                 try {
-                    socket.close();
+                    conexao.close();
                 } catch (IOException e) {
                     // Ignorar erro ao fechar
                 }
-                Log.info("R", "Conexão encerrada: " + socket.getRemoteSocketAddress());
+                Log.info("R", "Conexão encerrada: " + origem);
             }
         }
     }
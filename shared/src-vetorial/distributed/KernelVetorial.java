@@ -0,0 +1,288 @@
+package distributed;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão SIMD dos kernels de ordenação, usando a Vector API
+ * (módulo jdk.incubator.vector).
+ *
+ * Fica em uma pasta separada (src-vetorial) porque só compila com
+ * --add-modules jdk.incubator.vector. O KernelOrdenacao carrega esta
+ * classe por reflexão; se ela não existir ou o módulo não estiver
+ * disponível ao rodar, o código escalar é usado no lugar.
+ *
+ * - ordenarBloco: rede de ordenação bitônica em registradores (até 2 vetores)
+ * - intercalar: merge bitônico de dois vetores por vez (um vetor de saída por passo)
+ *
+ * Funciona com qualquer largura de vetor (SPECIES_PREFERRED): 4 inteiros
+ * em SSE/NEON, 8 em AVX2, 16 em AVX-512.
+ */
+public final class KernelVetorial implements KernelOrdenacao.Acelerador {
+    
+    private static final VectorSpecies<Integer> ESPECIE = IntVector.SPECIES_PREFERRED;
+    
+    // Quantos inteiros cabem em um vetor
+    private static final int LANES = ESPECIE.length();
+    
+    // Inverte a ordem das posições (transforma duas sequências crescentes em uma bitônica)
+    private static final VectorShuffle<Integer> INVERTER = VectorShuffle.fromOp(ESPECIE, i -> LANES - 1 - i);
+    
+    // Rede bitônica para ordenar um vetor: em cada estágio, a posição i compara
+    // com a posição i ^ distancia e fica com o maior se a máscara estiver ligada
+    private static final VectorShuffle<Integer>[] PARCEIROS_ORDENAR;
+    private static final VectorMask<Integer>[] MAIORES_ORDENAR;
+    
+    // Últimos estágios da rede (só a parte de merge, para vetores bitônicos)
+    private static final VectorShuffle<Integer>[] PARCEIROS_MERGE;
+    private static final VectorMask<Integer>[] MAIORES_MERGE;
+    
+    // Vetor auxiliar por thread, para as sobras do merge e do bloco
+    private static final ThreadLocal<int[]> AUXILIAR = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[2 * LANES];
+        }
+    };
+    
+    static {
+        int estagiosMerge = Integer.numberOfTrailingZeros(LANES);
+        int estagiosOrdenar = estagiosMerge * (estagiosMerge + 1) / 2;
+        
+        PARCEIROS_ORDENAR = novoVetorShuffles(estagiosOrdenar);
+        MAIORES_ORDENAR = novoVetorMascaras(estagiosOrdenar);
+        PARCEIROS_MERGE = novoVetorShuffles(estagiosMerge);
+        MAIORES_MERGE = novoVetorMascaras(estagiosMerge);
+        
+        // Rede bitônica completa: blocos de tamanho k, distâncias k/2, k/4, ..., 1
+        int e = 0;
+        for (int k = 2; k <= LANES; k *= 2) {
+            for (int j = k / 2; j >= 1; j /= 2) {
+                boolean[] maiores = new boolean[LANES];
+                for (int i = 0; i < LANES; i++) {
+                    // Blocos com (i & k) != 0 ficam em ordem decrescente
+                    maiores[i] = ((i & j) != 0) != ((i & k) != 0);
+                }
+                PARCEIROS_ORDENAR[e] = parceiros(j);
+                MAIORES_ORDENAR[e] = VectorMask.fromArray(ESPECIE, maiores, 0);
+                e++;
+            }
+        }
+        
+        // Só o merge: distâncias LANES/2, ..., 1, sempre crescente
+        e = 0;
+        for (int j = LANES / 2; j >= 1; j /= 2) {
+            boolean[] maiores = new boolean[LANES];
+            for (int i = 0; i < LANES; i++) {
+                maiores[i] = (i & j) != 0;
+            }
+            PARCEIROS_MERGE[e] = parceiros(j);
+            MAIORES_MERGE[e] = VectorMask.fromArray(ESPECIE, maiores, 0);
+            e++;
+        }
+    }
+    
+    /**
+     * Indica se o processador tem vetores grandes o bastante para este kernel.
+     * Vetores com menos de 4 inteiros não compensam: nesse caso o
+     * KernelOrdenacao nem cria o kernel e usa o código escalar.
+     * @return true se cabem pelo menos 4 inteiros em um vetor
+     */
+    public static boolean suportado() {
+        return LANES >= 4;
+    }
+    
+    /**
+     * Construtor chamado por reflexão pelo KernelOrdenacao (depois de suportado()).
+     */
+    public KernelVetorial() {
+    }
+    
+    @Override
+    public String descricao() {
+        return "vetorial (" + LANES + " inteiros por vetor)";
+    }
+    
+    /**
+     * Ordena vetor[inicio..fim) com a rede bitônica, se couber em dois vetores.
+     * As posições que sobram nos vetores são preenchidas com Integer.MAX_VALUE,
+     * que vão para o fim e não são gravadas de volta.
+     * @return false se o bloco for grande demais (quem chamou usa o código escalar)
+     */
+    @Override
+    public boolean ordenarBloco(int[] vetor, int inicio, int fim) {
+        int tamanho = fim - inicio;
+        if (tamanho > 2 * LANES) {
+            return false;
+        }
+        if (tamanho < 2) {
+            return true;
+        }
+        
+        IntVector a = carregar(vetor, inicio, tamanho);
+        
+        if (tamanho <= LANES) {
+            // Um vetor só
+            a = ordenarVetor(a);
+            guardar(a, vetor, inicio, tamanho);
+            return true;
+        }
+        
+        // Dois vetores: ordenar cada um e fazer o merge bitônico dos dois
+        IntVector b = carregar(vetor, inicio + LANES, tamanho - LANES);
+        a = ordenarVetor(a);
+        b = ordenarVetor(b).rearrange(INVERTER);
+        
+        IntVector menores = a.min(b);
+        IntVector maiores = a.max(b);
+        
+        menores = mergeVetor(menores);
+        maiores = mergeVetor(maiores);
+        
+        menores.intoArray(vetor, inicio);
+        guardar(maiores, vetor, inicio + LANES, tamanho - LANES);
+        return true;
+    }
+    
+    /**
+     * Merge de a[inicioA..fimA) com b[inicioB..fimB) em destino a partir de k.
+     *
+     * Cada passo junta um vetor já carregado com o próximo vetor da sequência
+     * cujo próximo elemento é menor; o merge bitônico dos dois dá um vetor com
+     * os menores (gravado) e um com os maiores (que continua no registrador).
+     * Quando a sequência escolhida não tem mais um vetor inteiro, o resto é
+     * feito sem SIMD.
+     *
+     * Como no escalar, destino pode ser o mesmo array de b (merge no lugar do
+     * Pedido): a gravação nunca passa da posição de leitura de b.
+     */
+    @Override
+    public int intercalar(int[] a, int inicioA, int fimA,
+                          int[] b, int inicioB, int fimB,
+                          int[] destino, int k) {
+        if (fimA - inicioA < LANES || fimB - inicioB < LANES) {
+            return KernelOrdenacao.intercalarEscalar(a, inicioA, fimA, b, inicioB, fimB, destino, k);
+        }
+        
+        int i = inicioA;
+        int j = inicioB;
+        
+        IntVector atual = IntVector.fromArray(ESPECIE, a, i);
+        i += LANES;
+        IntVector proximo = IntVector.fromArray(ESPECIE, b, j);
+        j += LANES;
+        
+        while (true) {
+            // Merge bitônico: inverter um dos vetores e separar menores e maiores
+            IntVector invertido = proximo.rearrange(INVERTER);
+            IntVector menores = mergeVetor(atual.min(invertido));
+            atual = mergeVetor(atual.max(invertido));
+            
+            menores.intoArray(destino, k);
+            k += LANES;
+            
+            // Pegar o próximo vetor da sequência com o menor próximo elemento
+            boolean pegaA = j >= fimB || (i < fimA && a[i] <= b[j]);
+            if (pegaA) {
+                if (fimA - i < LANES) {
+                    break;
+                }
+                proximo = IntVector.fromArray(ESPECIE, a, i);
+                i += LANES;
+            } else {
+                if (fimB - j < LANES) {
+                    break;
+                }
+                proximo = IntVector.fromArray(ESPECIE, b, j);
+                j += LANES;
+            }
+        }
+        
+        // Sobraram: o vetor com os maiores e o resto de a e de b (três sequências ordenadas)
+        int[] sobra = AUXILIAR.get();
+        atual.intoArray(sobra, 0);
+        int s = 0;
+        
+        while (s < LANES) {
+            int valor = sobra[s];
+            if (i < fimA && a[i] < valor && (j >= fimB || a[i] <= b[j])) {
+                destino[k++] = a[i++];
+            } else if (j < fimB && b[j] < valor) {
+                destino[k++] = b[j++];
+            } else {
+                destino[k++] = valor;
+                s++;
+            }
+        }
+        
+        // Só a e b agora
+        return KernelOrdenacao.intercalarEscalar(a, i, fimA, b, j, fimB, destino, k);
+    }
+    
+    /**
+     * Ordena os inteiros de um vetor com a rede bitônica completa.
+     */
+    private static IntVector ordenarVetor(IntVector v) {
+        for (int e = 0; e < PARCEIROS_ORDENAR.length; e++) {
+            IntVector parceiro = v.rearrange(PARCEIROS_ORDENAR[e]);
+            v = v.min(parceiro).blend(v.max(parceiro), MAIORES_ORDENAR[e]);
+        }
+        return v;
+    }
+    
+    /**
+     * Ordena um vetor bitônico (só a parte de merge da rede).
+     */
+    private static IntVector mergeVetor(IntVector v) {
+        for (int e = 0; e < PARCEIROS_MERGE.length; e++) {
+            IntVector parceiro = v.rearrange(PARCEIROS_MERGE[e]);
+            v = v.min(parceiro).blend(v.max(parceiro), MAIORES_MERGE[e]);
+        }
+        return v;
+    }
+    
+    /**
+     * Carrega até LANES inteiros; as posições que faltam ficam com Integer.MAX_VALUE.
+     */
+    private static IntVector carregar(int[] vetor, int inicio, int quantidade) {
+        if (quantidade >= LANES) {
+            return IntVector.fromArray(ESPECIE, vetor, inicio);
+        }
+        int[] auxiliar = AUXILIAR.get();
+        System.arraycopy(vetor, inicio, auxiliar, 0, quantidade);
+        java.util.Arrays.fill(auxiliar, quantidade, LANES, Integer.MAX_VALUE);
+        return IntVector.fromArray(ESPECIE, auxiliar, 0);
+    }
+    
+    /**
+     * Grava as primeiras 'quantidade' posições do vetor (o resto é preenchimento).
+     */
+    private static void guardar(IntVector v, int[] vetor, int inicio, int quantidade) {
+        if (quantidade >= LANES) {
+            v.intoArray(vetor, inicio);
+            return;
+        }
+        int[] auxiliar = AUXILIAR.get();
+        v.intoArray(auxiliar, 0);
+        System.arraycopy(auxiliar, 0, vetor, inicio, quantidade);
+    }
+    
+    /**
+     * Shuffle que troca cada posição i pela posição i ^ distancia.
+     */
+    private static VectorShuffle<Integer> parceiros(int distancia) {
+        return VectorShuffle.fromOp(ESPECIE, i -> i ^ distancia);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorShuffle<Integer>[] novoVetorShuffles(int tamanho) {
+        return (VectorShuffle<Integer>[]) new VectorShuffle[tamanho];
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorMask<Integer>[] novoVetorMascaras(int tamanho) {
+        return (VectorMask<Integer>[]) new VectorMask[tamanho];
+    }
+}
@@ -0,0 +1,169 @@
+package distributed;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de vetores já ordenados, indexado pelo hash do conteúdo.
+ *
+ * O cache guarda o próprio buffer do PoolBuffers em que o pedido foi
+ * ordenado (sem cópia). Quando uma entrada sai do cache, o buffer volta
+ * ao pool, mas só depois que nenhuma resposta estiver mais sendo enviada
+ * a partir dele: quem usa uma entrada (buscar/guardar) deve chamar
+ * soltar() quando terminar.
+ *
+ * O limite é em bytes (4 bytes por posição do buffer). Quando passa do
+ * limite, os resultados usados há mais tempo são removidos primeiro (LRU).
+ * É compartilhado por todas as conexões, por isso os métodos são synchronized.
+ */
+public class CacheResultados {
+    
+    /**
+     * Um resultado guardado: o buffer ordenado e quantas posições dele são o resultado.
+     */
+    public static class Entrada {
+        private final int[] vetor;
+        private final int tamanho;
+        
+        // Quantas respostas estão usando o buffer agora
+        private int usos = 0;
+        
+        // true quando a entrada já saiu do cache (o buffer volta ao pool no último soltar)
+        private boolean removida = false;
+        
+        private Entrada(int[] vetor, int tamanho) {
+            this.vetor = vetor;
+            this.tamanho = tamanho;
+        }
+        
+        /**
+         * Retorna o buffer com o resultado (pode ser maior que getTamanho()).
+         * @return o buffer ordenado
+         */
+        public int[] getVetor() {
+            return vetor;
+        }
+        
+        /**
+         * Retorna quantas posições do buffer fazem parte do resultado.
+         * @return o tamanho do resultado
+         */
+        public int getTamanho() {
+            return tamanho;
+        }
+    }
+    
+    // accessOrder = true: cada get() move a entrada para o fim (mais recente)
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<String, Entrada>(16, 0.75f, true);
+    
+    private final long limiteBytes;
+    private long bytesUsados = 0;
+    
+    // Estatísticas
+    private long acertos = 0;
+    private long faltas = 0;
+    
+    /**
+     * Construtor.
+     * @param limiteBytes tamanho máximo do cache em bytes (0 desliga o cache)
+     */
+    public CacheResultados(long limiteBytes) {
+        this.limiteBytes = limiteBytes;
+    }
+    
+    /**
+     * Indica se o cache está ligado.
+     * @return true se o limite for maior que zero
+     */
+    public boolean isAtivo() {
+        return limiteBytes > 0;
+    }
+    
+    /**
+     * Busca um resultado pelo hash. Se encontrar, a entrada fica em uso
+     * até soltar() ser chamado.
+     * @param hash o hash do vetor original
+     * @return a entrada, ou null se não estiver no cache
+     */
+    public synchronized Entrada buscar(String hash) {
+        Entrada entrada = entradas.get(hash);
+        if (entrada != null) {
+            acertos++;
+            entrada.usos++;
+        } else {
+            faltas++;
+        }
+        return entrada;
+    }
+    
+    /**
+     * Guarda um resultado. O cache passa a ser o dono do buffer: ele não
+     * deve mais ser modificado nem devolvido ao pool por quem chamou.
+     * A entrada devolvida já fica em uso (chamar soltar() depois de enviar a resposta).
+     * @param hash o hash do vetor original
+     * @param vetor buffer do PoolBuffers com o resultado nas primeiras posições
+     * @param tamanho quantas posições fazem parte do resultado
+     * @return a entrada, ou null se o buffer for maior que o limite do cache (não é guardado)
+     */
+    public synchronized Entrada guardar(String hash, int[] vetor, int tamanho) {
+        long bytes = tamanhoEmBytes(vetor);
+        if (bytes > limiteBytes) {
+            return null;
+        }
+        
+        Entrada entrada = new Entrada(vetor, tamanho);
+        entrada.usos = 1;
+        
+        Entrada anterior = entradas.put(hash, entrada);
+        if (anterior != null) {
+            bytesUsados -= tamanhoEmBytes(anterior.vetor);
+            remover(anterior);
+        }
+        bytesUsados += bytes;
+        
+        // Remover os menos usados recentemente até caber no limite
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (bytesUsados > limiteBytes && iterador.hasNext()) {
+            Entrada antiga = iterador.next().getValue();
+            bytesUsados -= tamanhoEmBytes(antiga.vetor);
+            iterador.remove();
+            remover(antiga);
+        }
+        
+        return entrada;
+    }
+    
+    /**
+     * Marca que uma resposta terminou de usar a entrada.
+     * @param entrada a entrada obtida em buscar() ou guardar()
+     */
+    public synchronized void soltar(Entrada entrada) {
+        entrada.usos--;
+        if (entrada.removida && entrada.usos == 0) {
+            PoolBuffers.devolver(entrada.vetor);
+        }
+    }
+    
+    /**
+     * Resumo do estado do cache, para log.
+     */
+    public synchronized String resumo() {
+        return entradas.size() + " entrada(s), " + (bytesUsados / 1024) + " KB de " + (limiteBytes / 1024) +
+                " KB — acertos: " + acertos + ", faltas: " + faltas;
+    }
+    
+    /**
+     * Entrada que saiu do cache: o buffer volta ao pool agora ou no último soltar().
+     */
+    private static void remover(Entrada entrada) {
+        entrada.removida = true;
+        if (entrada.usos == 0) {
+            PoolBuffers.devolver(entrada.vetor);
+        }
+    }
+    
+    private static long tamanhoEmBytes(int[] vetor) {
+        return 4L * vetor.length;
+    }
+}
@@ -0,0 +1,248 @@
+package distributed;
+
+import java.util.SplittableRandom;
+
+/**
+ * Rotinas básicas (kernels) usadas pelos algoritmos de ordenação e merge.
+ *
+ * Os laços de merge tradicionais usam um "if" por elemento. Com dados
+ * aleatórios o processador erra a previsão desse desvio quase metade
+ * das vezes. Aqui as escolhas são feitas com Math.min/Math.max e somas,
+ * que a JVM transforma em instruções sem desvio (cmov).
+ *
+ * - ordenarBloco: ordenação por inserção para blocos pequenos
+ * - intercalar: merge sem desvios de duas sequências ordenadas
+ *
+ * Se o módulo jdk.incubator.vector estiver disponível (e a classe
+ * KernelVetorial tiver sido compilada), as duas rotinas usam a versão
+ * SIMD dela; senão usam o código escalar desta classe.
+ *
+ * Antes de o JIT compilar, o código da Vector API é muito lento (cada
+ * vetor vira um objeto). Por isso o kernel SIMD é aquecido em uma thread
+ * separada e só passa a ser usado quando o aquecimento termina. Quem mede
+ * tempos deve chamar aguardarAquecimento() antes, para o aquecimento não
+ * disputar o processador com a medição nem o kernel trocar no meio dela.
+ */
+public final class KernelOrdenacao {
+    
+    /**
+     * Blocos com até este tamanho são ordenados direto por ordenarBloco,
+     * em vez de continuar dividindo o vetor.
+     */
+    public static final int TAMANHO_BLOCO = 16;
+    
+    /**
+     * Versão acelerada dos kernels (implementada pelo KernelVetorial).
+     */
+    public interface Acelerador {
+        
+        /**
+         * Descrição do kernel (usada no log).
+         */
+        String descricao();
+        
+        /**
+         * Ordena vetor[inicio..fim).
+         * @return false se o bloco não for suportado (usa o código escalar)
+         */
+        boolean ordenarBloco(int[] vetor, int inicio, int fim);
+        
+        /**
+         * Mesmo contrato de KernelOrdenacao.intercalar.
+         */
+        int intercalar(int[] a, int inicioA, int fimA,
+                       int[] b, int inicioB, int fimB,
+                       int[] destino, int k);
+    }
+    
+    // Quantas chamadas de cada kernel no aquecimento
+    private static final int ITERACOES_AQUECIMENTO = 20000;
+    
+    // Kernel SIMD carregado, ou null se não estiver disponível
+    private static final Acelerador CARREGADO = carregarAcelerador();
+    
+    // Kernel SIMD em uso: fica null até o aquecimento terminar
+    private static volatile Acelerador acelerador = null;
+    
+    // Thread do aquecimento (null se não houver kernel SIMD)
+    private static final Thread AQUECIMENTO;
+    
+    static {
+        if (CARREGADO != null) {
+            AQUECIMENTO = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    aquecer(CARREGADO);
+                    acelerador = CARREGADO;
+                }
+            }, "aquecimento-kernel");
+            AQUECIMENTO.setDaemon(true);  // não impede o programa de terminar
+            AQUECIMENTO.start();
+        } else {
+            AQUECIMENTO = null;
+        }
+    }
+    
+    // Construtor privado para não permitir criar instâncias
+    private KernelOrdenacao() {
+    }
+    
+    /**
+     * Tenta carregar o KernelVetorial por reflexão.
+     * Falha (e o código escalar é usado) se a classe não foi compilada,
+     * se a JVM não foi iniciada com --add-modules jdk.incubator.vector
+     * ou se o processador não tem vetores de pelo menos 4 inteiros.
+     */
+    private static Acelerador carregarAcelerador() {
+        try {
+            Class<?> classe = Class.forName("distributed.KernelVetorial");
+            boolean suportado = (Boolean) classe.getMethod("suportado").invoke(null);
+            if (!suportado) {
+                return null;
+            }
+            return (Acelerador) classe.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Chama o kernel SIMD muitas vezes com dados pequenos, para o JIT compilar.
+     */
+    private static void aquecer(Acelerador kernel) {
+        SplittableRandom aleatorio = new SplittableRandom(1);
+        int[] bloco = new int[TAMANHO_BLOCO];
+        
+        // Sequências intercaladas: o merge alterna entre as duas o tempo todo
+        int[] a = new int[256];
+        int[] b = new int[256];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = 2 * i;
+            b[i] = 2 * i + 1;
+        }
+        int[] destino = new int[a.length + b.length];
+        
+        for (int iteracao = 0; iteracao < ITERACOES_AQUECIMENTO; iteracao++) {
+            for (int i = 0; i < bloco.length; i++) {
+                bloco[i] = aleatorio.nextInt();
+            }
+            kernel.ordenarBloco(bloco, 0, TAMANHO_BLOCO - (iteracao & 7));
+            kernel.intercalar(a, 0, a.length, b, 0, b.length, destino, 0);
+        }
+    }
+    
+    /**
+     * Espera o aquecimento do kernel SIMD terminar (retorna na hora se não houver).
+     * Deve ser chamado antes de medir tempos de ordenação.
+     */
+    public static void aguardarAquecimento() {
+        if (AQUECIMENTO == null) {
+            return;
+        }
+        try {
+            AQUECIMENTO.join();
+        } catch (InterruptedException e) {
+            // Manter o aviso de interrupção para quem chamou
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Descreve qual kernel está em uso (vetorial ou escalar).
+     * @return a descrição, para mostrar no log
+     */
+    public static String descricao() {
+        if (CARREGADO == null) {
+            return "escalar (sem desvios)";
+        }
+        if (acelerador == null) {
+            return CARREGADO.descricao() + ", aquecendo (escalar até terminar)";
+        }
+        return CARREGADO.descricao();
+    }
+    
+    /**
+     * Ordena um bloco pequeno vetor[inicio..fim) por inserção.
+     * Os blocos que chegam aqui têm tamanhos variados (até TAMANHO_BLOCO),
+     * e para poucos elementos a inserção faz menos comparações que uma
+     * rede de ordenação genérica, além de aproveitar trechos já ordenados.
+     * @param vetor o vetor
+     * @param inicio índice inicial (inclusivo)
+     * @param fim índice final (exclusivo)
+     */
+    public static void ordenarBloco(int[] vetor, int inicio, int fim) {
+        Acelerador kernel = acelerador;
+        if (kernel != null && kernel.ordenarBloco(vetor, inicio, fim)) {
+            return;
+        }
+        ordenarBlocoEscalar(vetor, inicio, fim);
+    }
+    
+    /**
+     * Versão escalar de ordenarBloco (inserção).
+     */
+    static void ordenarBlocoEscalar(int[] vetor, int inicio, int fim) {
+        for (int i = inicio + 1; i < fim; i++) {
+            int valor = vetor[i];
+            int j = i - 1;
+            
+            // Empurrar para a direita os maiores que o valor
+            while (j >= inicio && vetor[j] > valor) {
+                vetor[j + 1] = vetor[j];
+                j--;
+            }
+            vetor[j + 1] = valor;
+        }
+    }
+    
+    /**
+     * Faz o merge de a[inicioA..fimA) com b[inicioB..fimB), escrevendo
+     * o resultado em destino a partir da posição k.
+     * O laço principal não tem desvios dependentes dos dados.
+     * destino pode ser o mesmo array de b, desde que o resultado comece
+     * antes de b (merge no lugar: a é a cópia da metade esquerda).
+     * @return a posição seguinte ao último elemento escrito em destino
+     */
+    public static int intercalar(int[] a, int inicioA, int fimA,
+                                 int[] b, int inicioB, int fimB,
+                                 int[] destino, int k) {
+        Acelerador kernel = acelerador;
+        if (kernel != null) {
+            return kernel.intercalar(a, inicioA, fimA, b, inicioB, fimB, destino, k);
+        }
+        return intercalarEscalar(a, inicioA, fimA, b, inicioB, fimB, destino, k);
+    }
+    
+    /**
+     * Versão escalar de intercalar (sem desvios no laço principal).
+     */
+    static int intercalarEscalar(int[] a, int inicioA, int fimA,
+                                 int[] b, int inicioB, int fimB,
+                                 int[] destino, int k) {
+        int i = inicioA;
+        int j = inicioB;
+        
+        while (i < fimA && j < fimB) {
+            int x = a[i];
+            int y = b[j];
+            
+            // 1 se o elemento vem de 'a', 0 se vem de 'b'
+            int pegaA = (x <= y) ? 1 : 0;
+            
+            destino[k++] = Math.min(x, y);
+            i += pegaA;
+            j += 1 - pegaA;
+        }
+        
+        // Copiar os elementos restantes (só um dos lados tem sobra)
+        int restanteA = fimA - i;
+        System.arraycopy(a, i, destino, k, restanteA);
+        k += restanteA;
+        
+        int restanteB = fimB - j;
+        System.arraycopy(b, j, destino, k, restanteB);
+        k += restanteB;
+        
+        return k;
+    }
+}
@@ -0,0 +1,66 @@
+package distributed;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas do servidor informadas ao cliente (ver RespostaCapacidade).
+ *
+ * Guarda a vazão recente de ordenação (média móvel exponencial, para
+ * acompanhar mudanças de carga) e quantos pedidos estão sendo ordenados agora.
+ * Compartilhada por todas as conexões.
+ */
+public class MetricasReceptor {
+    
+    // Peso da última medição na média móvel
+    private static final double PESO_NOVA_MEDICAO = 0.3;
+    
+    // Blocos menores que isso não entram na média (o tempo é dominado por ruído)
+    private static final int TAMANHO_MINIMO = 10000;
+    
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    
+    // Vazão em elementos por milissegundo (0 = ainda não medida)
+    private double vazao = 0;
+    
+    /**
+     * Marca o início de uma ordenação.
+     */
+    public void iniciar() {
+        emAndamento.incrementAndGet();
+    }
+    
+    /**
+     * Marca o fim de uma ordenação e atualiza a vazão.
+     * @param tamanho quantos elementos foram ordenados
+     * @param nanos quanto tempo levou, em nanossegundos
+     */
+    public void terminar(int tamanho, long nanos) {
+        emAndamento.decrementAndGet();
+        
+        if (tamanho < TAMANHO_MINIMO || nanos <= 0) {
+            return;
+        }
+        
+        double medida = tamanho / (nanos / 1_000_000.0);
+        synchronized (this) {
+            vazao = (vazao == 0) ? medida : PESO_NOVA_MEDICAO * medida + (1 - PESO_NOVA_MEDICAO) * vazao;
+        }
+    }
+    
+    /**
+     * Monta a resposta com a capacidade atual do servidor.
+     * @return a capacidade atual
+     */
+    public RespostaCapacidade capacidade() {
+        Runtime runtime = Runtime.getRuntime();
+        long usada = runtime.totalMemory() - runtime.freeMemory();
+        long livre = runtime.maxMemory() - usada;
+        
+        double vazaoAtual;
+        synchronized (this) {
+            vazaoAtual = vazao;
+        }
+        
+        return new RespostaCapacidade(runtime.availableProcessors(), livre, vazaoAtual, emAndamento.get());
+    }
+}
@@ -0,0 +1,383 @@
+package distributed;
+
+/**
+ * Merge Sort natural (no estilo do TimSort).
+ *
+ * Em vez de dividir o vetor até sobrarem elementos isolados, este algoritmo
+ * procura sequências (runs) que já estão em ordem:
+ * 1. Sequências crescentes são usadas como estão
+ * 2. Sequências estritamente decrescentes são invertidas
+ * 3. Sequências muito curtas são estendidas com inserção binária
+ * 4. As sequências são intercaladas usando "galope" (busca exponencial)
+ *
+ * Se o vetor já estiver ordenado, o custo é O(n) e nenhum array temporário é criado.
+ * A ordenação é estável: elementos iguais mantêm a ordem original.
+ */
+public final class OrdenacaoNatural {
+    
+    // Sequências menores que isso são estendidas com inserção binária
+    private static final int MIN_MERGE = 32;
+    
+    // Quantas vitórias seguidas de um lado até entrar no modo galope
+    private static final int MIN_GALOPE = 7;
+    
+    // Tamanho máximo da pilha de sequências (suficiente para qualquer int[])
+    private static final int TAMANHO_PILHA = 49;
+    
+    private final int[] vetor;
+    
+    // Array temporário usado nas intercalações (criado só quando necessário)
+    private int[] temp;
+    
+    // Pilha de sequências pendentes: início e tamanho de cada uma
+    private final int[] pilhaInicio = new int[TAMANHO_PILHA];
+    private final int[] pilhaTamanho = new int[TAMANHO_PILHA];
+    private int topo = 0;
+    
+    private OrdenacaoNatural(int[] vetor, int[] temp) {
+        this.vetor = vetor;
+        this.temp = temp;
+    }
+    
+    /**
+     * Ordena o trecho vetor[inicio..fim) no próprio vetor.
+     * @param vetor o vetor a ser ordenado
+     * @param inicio índice inicial (inclusivo)
+     * @param fim índice final (exclusivo)
+     */
+    public static void ordenar(int[] vetor, int inicio, int fim) {
+        ordenar(vetor, inicio, fim, null);
+    }
+    
+    /**
+     * Ordena o trecho vetor[inicio..fim) no próprio vetor, usando 'temp'
+     * como array temporário das intercalações (se for pequeno demais,
+     * um maior é criado).
+     * @param vetor o vetor a ser ordenado
+     * @param inicio índice inicial (inclusivo)
+     * @param fim índice final (exclusivo)
+     * @param temp array temporário (pode ser null)
+     */
+    public static void ordenar(int[] vetor, int inicio, int fim, int[] temp) {
+        int restante = fim - inicio;
+        if (restante < 2) {
+            return;
+        }
+        
+        // Vetores pequenos: uma sequência inicial + inserção binária resolve
+        if (restante < MIN_MERGE) {
+            int fimSequencia = contarSequencia(vetor, inicio, fim);
+            insercaoBinaria(vetor, inicio, fim, fimSequencia);
+            return;
+        }
+        
+        OrdenacaoNatural ordenacao = new OrdenacaoNatural(vetor, temp);
+        int minimo = calcularTamanhoMinimo(restante);
+        int atual = inicio;
+        
+        do {
+            // Encontrar a próxima sequência já ordenada
+            int fimSequencia = contarSequencia(vetor, atual, fim);
+            int tamanho = fimSequencia - atual;
+            
+            // Vetor inteiro já estava ordenado (ou era decrescente): nada mais a fazer
+            if (tamanho == fim - inicio) {
+                return;
+            }
+            
+            // Sequência curta demais: estender até o tamanho mínimo
+            if (tamanho < minimo) {
+                int forcado = Math.min(restante, minimo);
+                insercaoBinaria(vetor, atual, atual + forcado, fimSequencia);
+                tamanho = forcado;
+            }
+            
+            // Empilhar a sequência e intercalar se as regras da pilha mandarem
+            ordenacao.empilhar(atual, tamanho);
+            ordenacao.intercalarPendentes();
+            
+            atual += tamanho;
+            restante -= tamanho;
+        } while (restante != 0);
+        
+        // Intercalar tudo o que sobrou na pilha
+        ordenacao.intercalarTudo();
+    }
+    
+    /**
+     * Encontra o fim da sequência que começa em 'inicio'.
+     * Se a sequência for estritamente decrescente, ela é invertida
+     * (estritamente para não trocar a ordem de elementos iguais).
+     * @return índice logo após o fim da sequência
+     */
+    private static int contarSequencia(int[] vetor, int inicio, int fim) {
+        int fimSequencia = inicio + 1;
+        if (fimSequencia == fim) {
+            return fim;
+        }
+        
+        if (vetor[fimSequencia++] < vetor[inicio]) {
+            // Sequência decrescente
+            while (fimSequencia < fim && vetor[fimSequencia] < vetor[fimSequencia - 1]) {
+                fimSequencia++;
+            }
+            inverter(vetor, inicio, fimSequencia);
+        } else {
+            // Sequência crescente (ou com elementos iguais)
+            while (fimSequencia < fim && vetor[fimSequencia] >= vetor[fimSequencia - 1]) {
+                fimSequencia++;
+            }
+        }
+        
+        return fimSequencia;
+    }
+    
+    /**
+     * Inverte o trecho vetor[inicio..fim).
+     */
+    private static void inverter(int[] vetor, int inicio, int fim) {
+        fim--;
+        while (inicio < fim) {
+            int aux = vetor[inicio];
+            vetor[inicio] = vetor[fim];
+            vetor[fim] = aux;
+            inicio++;
+            fim--;
+        }
+    }
+    
+    /**
+     * Inserção binária no trecho vetor[inicio..fim), sabendo que
+     * vetor[inicio..ordenadoAte) já está ordenado.
+     */
+    private static void insercaoBinaria(int[] vetor, int inicio, int fim, int ordenadoAte) {
+        for (int i = ordenadoAte; i < fim; i++) {
+            int pivo = vetor[i];
+            
+            // Procurar a posição depois de todos os elementos <= pivo (mantém estabilidade)
+            int esquerda = inicio;
+            int direita = i;
+            while (esquerda < direita) {
+                int meio = (esquerda + direita) >>> 1;
+                if (pivo < vetor[meio]) {
+                    direita = meio;
+                } else {
+                    esquerda = meio + 1;
+                }
+            }
+            
+            // Deslocar os elementos maiores uma posição para a direita
+            System.arraycopy(vetor, esquerda, vetor, esquerda + 1, i - esquerda);
+            vetor[esquerda] = pivo;
+        }
+    }
+    
+    /**
+     * Calcula o tamanho mínimo de uma sequência, de forma que o número
+     * de sequências fique próximo de uma potência de 2 (merges equilibrados).
+     */
+    private static int calcularTamanhoMinimo(int n) {
+        int resto = 0;
+        while (n >= MIN_MERGE) {
+            resto |= (n & 1);
+            n >>= 1;
+        }
+        return n + resto;
+    }
+    
+    private void empilhar(int inicio, int tamanho) {
+        pilhaInicio[topo] = inicio;
+        pilhaTamanho[topo] = tamanho;
+        topo++;
+    }
+    
+    /**
+     * Intercala sequências da pilha até que as regras abaixo valham
+     * para as sequências do topo (A, B, C, do fundo para o topo):
+     *   A > B + C  e  B > C
+     * Isso mantém os merges equilibrados, como no TimSort.
+     */
+    private void intercalarPendentes() {
+        while (topo > 1) {
+            int n = topo - 2;
+            if ((n > 0 && pilhaTamanho[n - 1] <= pilhaTamanho[n] + pilhaTamanho[n + 1])
+                    || (n > 1 && pilhaTamanho[n - 2] <= pilhaTamanho[n] + pilhaTamanho[n - 1])) {
+                if (pilhaTamanho[n - 1] < pilhaTamanho[n + 1]) {
+                    n--;
+                }
+            } else if (pilhaTamanho[n] > pilhaTamanho[n + 1]) {
+                break;
+            }
+            intercalarEm(n);
+        }
+    }
+    
+    /**
+     * Intercala todas as sequências restantes na pilha.
+     */
+    private void intercalarTudo() {
+        while (topo > 1) {
+            int n = topo - 2;
+            if (n > 0 && pilhaTamanho[n - 1] < pilhaTamanho[n + 1]) {
+                n--;
+            }
+            intercalarEm(n);
+        }
+    }
+    
+    /**
+     * Intercala as sequências nas posições i e i+1 da pilha.
+     */
+    private void intercalarEm(int i) {
+        int inicio1 = pilhaInicio[i];
+        int tamanho1 = pilhaTamanho[i];
+        int inicio2 = pilhaInicio[i + 1];
+        int tamanho2 = pilhaTamanho[i + 1];
+        
+        // Atualizar a pilha: a sequência i passa a cobrir as duas
+        pilhaTamanho[i] = tamanho1 + tamanho2;
+        if (i == topo - 3) {
+            pilhaInicio[i + 1] = pilhaInicio[i + 2];
+            pilhaTamanho[i + 1] = pilhaTamanho[i + 2];
+        }
+        topo--;
+        
+        // Elementos do começo da primeira sequência que já estão no lugar
+        int pulados = galoparDireita(vetor[inicio2], vetor, inicio1, tamanho1);
+        inicio1 += pulados;
+        tamanho1 -= pulados;
+        if (tamanho1 == 0) {
+            return;
+        }
+        
+        // Elementos do fim da segunda sequência que já estão no lugar
+        tamanho2 = galoparEsquerda(vetor[inicio1 + tamanho1 - 1], vetor, inicio2, tamanho2);
+        if (tamanho2 == 0) {
+            return;
+        }
+        
+        intercalar(inicio1, tamanho1, inicio2, tamanho2);
+    }
+    
+    /**
+     * Intercala vetor[inicio1..inicio1+tamanho1) com a sequência seguinte
+     * vetor[inicio2..inicio2+tamanho2). Copia só a primeira parte para o temporário.
+     * Quando um lado "ganha" muitas vezes seguidas, passa para o modo galope,
+     * que copia blocos inteiros de uma vez.
+     */
+    private void intercalar(int inicio1, int tamanho1, int inicio2, int tamanho2) {
+        if (temp == null || temp.length < tamanho1) {
+            temp = new int[Math.max(tamanho1, temp == null ? 0 : temp.length * 2)];
+        }
+        System.arraycopy(vetor, inicio1, temp, 0, tamanho1);
+        
+        int i = 0;                        // índice no temporário (primeira sequência)
+        int j = inicio2;                  // índice na segunda sequência
+        int fim2 = inicio2 + tamanho2;
+        int k = inicio1;                  // posição de destino no vetor
+        
+        while (i < tamanho1 && j < fim2) {
+            int vitorias1 = 0;
+            int vitorias2 = 0;
+            
+            // Modo normal: um elemento por vez
+            do {
+                if (vetor[j] < temp[i]) {
+                    vetor[k++] = vetor[j++];
+                    vitorias2++;
+                    vitorias1 = 0;
+                } else {
+                    vetor[k++] = temp[i++];
+                    vitorias1++;
+                    vitorias2 = 0;
+                }
+            } while (i < tamanho1 && j < fim2 && (vitorias1 | vitorias2) < MIN_GALOPE);
+            
+            // Modo galope: copiar blocos inteiros enquanto compensar
+            while (i < tamanho1 && j < fim2) {
+                int qtd1 = galoparDireita(vetor[j], temp, i, tamanho1 - i);
+                System.arraycopy(temp, i, vetor, k, qtd1);
+                i += qtd1;
+                k += qtd1;
+                if (i >= tamanho1) {
+                    break;
+                }
+                
+                int qtd2 = galoparEsquerda(temp[i], vetor, j, fim2 - j);
+                System.arraycopy(vetor, j, vetor, k, qtd2);
+                j += qtd2;
+                k += qtd2;
+                
+                if (qtd1 < MIN_GALOPE && qtd2 < MIN_GALOPE) {
+                    break;
+                }
+            }
+        }
+        
+        // Copiar o que sobrou da primeira sequência
+        // (o que sobrou da segunda já está no lugar certo)
+        if (i < tamanho1) {
+            System.arraycopy(temp, i, vetor, k, tamanho1 - i);
+        }
+    }
+    
+    /**
+     * Quantos elementos de a[base..base+tamanho) são <= chave.
+     * Usa busca exponencial seguida de busca binária.
+     */
+    private static int galoparDireita(int chave, int[] a, int base, int tamanho) {
+        int anterior = 0;
+        int passo = 1;
+        while (passo < tamanho && a[base + passo - 1] <= chave) {
+            anterior = passo;
+            passo = (passo << 1) + 1;
+            if (passo <= 0) {
+                passo = tamanho;
+            }
+        }
+        if (passo > tamanho) {
+            passo = tamanho;
+        }
+        
+        // Resposta está entre 'anterior' e 'passo'
+        while (anterior < passo) {
+            int meio = (anterior + passo) >>> 1;
+            if (a[base + meio] <= chave) {
+                anterior = meio + 1;
+            } else {
+                passo = meio;
+            }
+        }
+        return anterior;
+    }
+    
+    /**
+     * Quantos elementos de a[base..base+tamanho) são < chave.
+     * Usa busca exponencial seguida de busca binária.
+     */
+    private static int galoparEsquerda(int chave, int[] a, int base, int tamanho) {
+        int anterior = 0;
+        int passo = 1;
+        while (passo < tamanho && a[base + passo - 1] < chave) {
+            anterior = passo;
+            passo = (passo << 1) + 1;
+            if (passo <= 0) {
+                passo = tamanho;
+            }
+        }
+        if (passo > tamanho) {
+            passo = tamanho;
+        }
+        
+        // Resposta está entre 'anterior' e 'passo'
+        while (anterior < passo) {
+            int meio = (anterior + passo) >>> 1;
+            if (a[base + meio] < chave) {
+                anterior = meio + 1;
+            } else {
+                passo = meio;
+            }
+        }
+        return anterior;
+    }
+}
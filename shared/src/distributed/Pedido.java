@@ -1,7 +1,15 @@
 package distributed;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -9,24 +17,62 @@ import java.util.concurrent.Future;
 /**
  * Classe que representa um pedido de ordenação.
  * Contém um vetor de números inteiros que precisa ser ordenado.
- * Pode ordenar o vetor usando Merge Sort.
+ * Pode ordenar o vetor usando Merge Sort tradicional ou Merge Sort natural.
+ * 
+ * Quando o pedido chega pela rede, o vetor é lido para um buffer do PoolBuffers,
+ * que pode ser maior que o necessário: o tamanho útil fica em getTamanho().
+ * No servidor, o vetor é ordenado no próprio buffer (ordenarNoLugar) e,
+ * depois que a resposta é enviada, o buffer volta ao pool (liberar).
  */
 public class Pedido extends Comunicado implements Serializable {
-    private static final long serialVersionUID = 2L;
+    // Era 2L; mudou quando o vetor passou a ser enviado à mão (writeObject/readObject)
+    private static final long serialVersionUID = 14L;
     
-    // O vetor que precisa ser ordenado
-    private final int[] numeros;
+    /**
+     * Algoritmos de ordenação disponíveis.
+     * MERGE_SORT: divide sempre até elementos isolados (comportamento original).
+     * NATURAL: aproveita sequências já ordenadas (estilo TimSort), O(n) se já estiver ordenado.
+     */
+    public enum Algoritmo {
+        MERGE_SORT,
+        NATURAL
+    }
+    
+    // O vetor que precisa ser ordenado (enviado à mão em writeObject)
+    private transient int[] numeros;
+    
+    // Quantas posições de 'numeros' são usadas
+    private transient int tamanho;
+    
+    // Algoritmo usado pelo servidor para ordenar
+    private final Algoritmo algoritmo;
+    
+    // Hash do conteúdo (calculado só quando pedido, não é enviado pela rede)
+    private transient String hash;
     
     /**
      * Construtor que recebe o vetor a ser ordenado.
+     * Usa o Merge Sort tradicional.
      * @param numeros o vetor de números inteiros
      */
     public Pedido(int[] numeros) {
+        this(numeros, Algoritmo.MERGE_SORT);
+    }
+    
+    /**
+     * Construtor que recebe o vetor e o algoritmo de ordenação.
+     * @param numeros o vetor de números inteiros
+     * @param algoritmo o algoritmo a ser usado
+     */
+    public Pedido(int[] numeros, Algoritmo algoritmo) {
         this.numeros = numeros;
+        this.tamanho = (numeros == null) ? 0 : numeros.length;
+        this.algoritmo = algoritmo;
     }
     
     /**
      * Retorna o vetor de números.
+     * Se o pedido veio pela rede, o vetor pode ser maior que getTamanho().
      * @return o vetor
      */
     public int[] getNumeros() {
@@ -34,105 +80,223 @@ public class Pedido extends Comunicado implements Serializable {
     }
     
     /**
-     * Ordena o vetor usando Merge Sort.
+     * Retorna quantos números o pedido tem.
+     * @return o tamanho útil do vetor
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    /**
+     * Retorna o algoritmo de ordenação escolhido.
+     * @return o algoritmo
+     */
+    public Algoritmo getAlgoritmo() {
+        return algoritmo;
+    }
+    
+    /**
+     * Retorna o hash SHA-256 do conteúdo do vetor.
+     * Dois pedidos com os mesmos números têm o mesmo hash.
+     * O valor é calculado na primeira chamada e guardado.
+     * @return o hash em hexadecimal
+     */
+    public String getHash() {
+        if (hash == null) {
+            hash = calcularHash(numeros, tamanho);
+        }
+        return hash;
+    }
+    
+    /**
+     * Calcula o hash SHA-256 das primeiras 'tamanho' posições de um vetor.
+     * @param numeros o vetor
+     * @param tamanho quantas posições considerar
+     * @return o hash em hexadecimal
+     */
+    public static String calcularHash(int[] numeros, int tamanho) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+        
+        if (numeros != null) {
+            // Converter os inteiros para bytes em blocos, sem copiar o vetor inteiro
+            ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+            IntBuffer inteiros = bytes.asIntBuffer();
+            for (int i = 0; i < tamanho; i += inteiros.capacity()) {
+                int quantidade = Math.min(inteiros.capacity(), tamanho - i);
+                inteiros.clear();
+                inteiros.put(numeros, i, quantidade);
+                digest.update(bytes.array(), 0, quantidade * 4);
+            }
+        }
+        
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    /**
+     * Ordena o vetor usando o algoritmo escolhido.
      * Cria uma cópia do vetor original para não modificar o original.
      * @return o vetor ordenado
      */
     public int[] ordenar() {
         // Se o vetor está vazio, retorna vetor vazio
-        if (numeros == null || numeros.length == 0) {
+        if (numeros == null || tamanho == 0) {
             return new int[0];
         }
         
         // Criar uma cópia para não modificar o original
-        int[] copia = Arrays.copyOf(numeros, numeros.length);
+        int[] copia = Arrays.copyOf(numeros, tamanho);
         
-        // Chamar o merge sort recursivo
-        mergeSort(copia, 0, copia.length - 1);
+        ordenarTrecho(copia, tamanho);
         
         return copia;
     }
     
+    /**
+     * Ordena o vetor no próprio buffer, sem criar cópia.
+     * Depois disso getNumeros() contém os números ordenados.
+     */
+    public void ordenarNoLugar() {
+        if (numeros == null || tamanho < 2) {
+            return;
+        }
+        
+        ordenarTrecho(numeros, tamanho);
+    }
+    
+    /**
+     * Devolve o buffer do vetor ao PoolBuffers.
+     * Só deve ser chamado quando ninguém mais usa o vetor (ex: depois de enviar a resposta).
+     * Se o vetor não veio do pool (pedido criado por quem chama), o pool o ignora.
+     */
+    public void liberar() {
+        PoolBuffers.devolver(numeros);
+        numeros = null;
+        tamanho = 0;
+    }
+    
+    /**
+     * Entrega o buffer do vetor para outro dono (ex: o cache de resultados).
+     * Depois disso o pedido fica sem vetor e liberar() não devolve mais o buffer ao pool.
+     * @return o buffer que estava no pedido
+     */
+    public int[] entregarBuffer() {
+        int[] buffer = numeros;
+        numeros = null;
+        tamanho = 0;
+        return buffer;
+    }
+    
+    /**
+     * Ordena vetor[0..tamanho) com o algoritmo escolhido.
+     * O array auxiliar vem do PoolBuffers e é devolvido no final.
+     */
+    private void ordenarTrecho(int[] vetor, int tamanho) {
+        if (algoritmo == Algoritmo.NATURAL) {
+            // Merge sort natural: aproveita trechos já ordenados
+            int[] auxiliar = PoolBuffers.obter(tamanho);
+            try {
+                OrdenacaoNatural.ordenar(vetor, 0, tamanho, auxiliar);
+            } finally {
+                PoolBuffers.devolver(auxiliar);
+            }
+        } else {
+            // Merge sort recursivo: o auxiliar só guarda a metade esquerda de cada merge
+            int[] auxiliar = PoolBuffers.obter(tamanho / 2 + 1);
+            try {
+                mergeSort(vetor, 0, tamanho - 1, auxiliar);
+            } finally {
+                PoolBuffers.devolver(auxiliar);
+            }
+        }
+    }
+    
     /**
      * Merge Sort recursivo.
      * Divide o vetor ao meio, ordena cada metade e depois faz o merge.
+     * Blocos pequenos são ordenados direto pelo KernelOrdenacao (inserção).
      * @param vetor o vetor a ser ordenado
      * @param inicio índice inicial
      * @param fim índice final
+     * @param auxiliar array auxiliar com pelo menos metade do tamanho + 1
      */
-    private void mergeSort(int[] vetor, int inicio, int fim) {
+    private void mergeSort(int[] vetor, int inicio, int fim, int[] auxiliar) {
         // Caso base: se inicio >= fim, não há nada para ordenar
         if (inicio >= fim) {
             return;
         }
         
+        // Bloco pequeno: ordenar direto (KernelOrdenacao.ordenarBloco)
+        if (fim - inicio + 1 <= KernelOrdenacao.TAMANHO_BLOCO) {
+            KernelOrdenacao.ordenarBloco(vetor, inicio, fim + 1);
+            return;
+        }
+        
         // Calcular o meio do vetor
         int meio = (inicio + fim) / 2;
         
         // Ordenar a metade esquerda
-        mergeSort(vetor, inicio, meio);
+        mergeSort(vetor, inicio, meio, auxiliar);
         
         // Ordenar a metade direita
-        mergeSort(vetor, meio + 1, fim);
+        mergeSort(vetor, meio + 1, fim, auxiliar);
         
         // Fazer o merge das duas metades ordenadas
-        merge(vetor, inicio, meio, fim);
+        merge(vetor, inicio, meio, fim, auxiliar);
     }
     
     /**
      * Faz o merge (intercalação) de duas partes ordenadas do vetor.
      * A parte esquerda vai de 'inicio' até 'meio'.
      * A parte direita vai de 'meio+1' até 'fim'.
+     * Só a parte esquerda é copiada para o auxiliar; o resultado é escrito
+     * no próprio vetor (a escrita nunca passa da posição que ainda vai ser lida).
      * @param vetor o vetor completo
      * @param inicio início da parte esquerda
      * @param meio fim da parte esquerda (e início da direita - 1)
      * @param fim fim da parte direita
+     * @param auxiliar array auxiliar para a parte esquerda
      */
-    private void merge(int[] vetor, int inicio, int meio, int fim) {
-        // Criar arrays temporários para as duas partes
+    private void merge(int[] vetor, int inicio, int meio, int fim, int[] auxiliar) {
         int tamanhoEsquerda = meio - inicio + 1;
-        int tamanhoDireita = fim - meio;
-        
-        int[] esquerda = new int[tamanhoEsquerda];
-        int[] direita = new int[tamanhoDireita];
         
-        // Copiar os elementos para os arrays temporários
-        for (int i = 0; i < tamanhoEsquerda; i++) {
-            esquerda[i] = vetor[inicio + i];
-        }
-        for (int j = 0; j < tamanhoDireita; j++) {
-            direita[j] = vetor[meio + 1 + j];
-        }
-        
-        // Fazer o merge: comparar elementos e colocar no lugar certo
-        int i = 0;  // índice para array esquerda
-        int j = 0;  // índice para array direita
-        int k = inicio;  // índice para o vetor original
-        
-        // Comparar elementos dos dois arrays e colocar o menor no vetor
-        while (i < tamanhoEsquerda && j < tamanhoDireita) {
-            if (esquerda[i] <= direita[j]) {
-                vetor[k] = esquerda[i];
-                i++;
-            } else {
-                vetor[k] = direita[j];
-                j++;
-            }
-            k++;
-        }
+        // Copiar a parte esquerda para o array auxiliar
+        System.arraycopy(vetor, inicio, auxiliar, 0, tamanhoEsquerda);
         
-        // Copiar elementos restantes da esquerda (se houver)
-        while (i < tamanhoEsquerda) {
-            vetor[k] = esquerda[i];
-            i++;
-            k++;
+        // Fazer o merge sem desvios, escrevendo de volta no vetor original
+        KernelOrdenacao.intercalar(auxiliar, 0, tamanhoEsquerda,
+                                   vetor, meio + 1, fim + 1,
+                                   vetor, inicio);
+    }
+    
+    /**
+     * Serialização: escreve só as posições usadas do vetor.
+     */
+    private void writeObject(ObjectOutputStream saida) throws IOException {
+        saida.defaultWriteObject();
+        saida.writeInt(numeros == null ? -1 : tamanho);
+        if (numeros != null) {
+            SerializacaoVetor.escrever(saida, numeros, tamanho);
         }
-        
-        // Copiar elementos restantes da direita (se houver)
-        while (j < tamanhoDireita) {
-            vetor[k] = direita[j];
-            j++;
-            k++;
+    }
+    
+    /**
+     * Desserialização: lê o vetor para um buffer do PoolBuffers.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        int recebido = entrada.readInt();
+        if (recebido < 0) {
+            numeros = null;
+            tamanho = 0;
+        } else {
+            numeros = PoolBuffers.obter(recebido);
+            tamanho = recebido;
+            SerializacaoVetor.ler(entrada, numeros, tamanho);
         }
     }
 }
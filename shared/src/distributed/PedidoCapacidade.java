@@ -0,0 +1,15 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Pergunta ao servidor qual a sua capacidade atual.
+ * O servidor responde com uma RespostaCapacidade.
+ *
+ * Usado pelo cliente antes de cada ordenação para dividir o vetor
+ * de forma proporcional à capacidade de cada servidor.
+ */
+public class PedidoCapacidade extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 11L;
+    // Classe vazia, serve apenas para pedir a capacidade
+}
@@ -0,0 +1,46 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Pedido de ordenação que envia só o hash do vetor.
+ *
+ * Se o servidor já ordenou um vetor com esse hash, responde direto com
+ * uma Resposta. Se não, responde com RespostaAusente e o cliente envia
+ * o Pedido completo. Assim vetores repetidos não trafegam de novo pela rede.
+ */
+public class PedidoHash extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 9L;
+    
+    // Hash SHA-256 do vetor (ver Pedido.calcularHash)
+    private final String hash;
+    
+    // Tamanho do vetor (só para log e conferência)
+    private final int tamanho;
+    
+    /**
+     * Construtor.
+     * @param hash o hash do vetor
+     * @param tamanho o tamanho do vetor
+     */
+    public PedidoHash(String hash, int tamanho) {
+        this.hash = hash;
+        this.tamanho = tamanho;
+    }
+    
+    /**
+     * Retorna o hash do vetor.
+     * @return o hash em hexadecimal
+     */
+    public String getHash() {
+        return hash;
+    }
+    
+    /**
+     * Retorna o tamanho do vetor.
+     * @return o tamanho
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+}
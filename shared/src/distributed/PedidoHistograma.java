@@ -0,0 +1,70 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Pedido de histograma de um vetor.
+ *
+ * O intervalo [minimo, maximo] é dividido em faixas de mesmo tamanho e o
+ * servidor conta quantos elementos caem em cada faixa. Elementos fora do
+ * intervalo são ignorados. Nenhuma ordenação é feita.
+ */
+public class PedidoHistograma extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 7L;
+    
+    // O vetor a ser contado
+    private final int[] numeros;
+    
+    // Limites do histograma (inclusivos)
+    private final int minimo;
+    private final int maximo;
+    
+    // Número de faixas do histograma
+    private final int faixas;
+    
+    /**
+     * Construtor.
+     * @param numeros o vetor de números inteiros
+     * @param minimo menor valor do histograma (inclusivo)
+     * @param maximo maior valor do histograma (inclusivo)
+     * @param faixas número de faixas
+     */
+    public PedidoHistograma(int[] numeros, int minimo, int maximo, int faixas) {
+        this.numeros = numeros;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.faixas = faixas;
+    }
+    
+    /**
+     * Retorna o vetor de números.
+     * @return o vetor
+     */
+    public int[] getNumeros() {
+        return numeros;
+    }
+    
+    /**
+     * Conta os elementos de cada faixa.
+     * @return as contagens, uma por faixa
+     */
+    public RespostaHistograma calcular() {
+        long[] contagens = new long[Math.max(faixas, 0)];
+        if (numeros == null || faixas <= 0 || maximo < minimo) {
+            return new RespostaHistograma(contagens);
+        }
+        
+        // Usar long para não estourar com intervalos grandes
+        long largura = (long) maximo - minimo + 1;
+        
+        for (int i = 0; i < numeros.length; i++) {
+            int x = numeros[i];
+            if (x >= minimo && x <= maximo) {
+                int faixa = (int) (((long) x - minimo) * faixas / largura);
+                contagens[faixa]++;
+            }
+        }
+        
+        return new RespostaHistograma(contagens);
+    }
+}
@@ -0,0 +1,82 @@
+package distributed;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Pedido dos elementos de um vetor que estão dentro de um intervalo de valores.
+ *
+ * O servidor filtra os elementos em [de, ate] e ordena só eles.
+ * A Resposta volta com os elementos filtrados em ordem crescente.
+ */
+public class PedidoIntervalo extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 6L;
+    
+    // O vetor a ser filtrado
+    private final int[] numeros;
+    
+    // Limites do intervalo (inclusivos)
+    private final int de;
+    private final int ate;
+    
+    /**
+     * Construtor.
+     * @param numeros o vetor de números inteiros
+     * @param de menor valor aceito (inclusivo)
+     * @param ate maior valor aceito (inclusivo)
+     */
+    public PedidoIntervalo(int[] numeros, int de, int ate) {
+        this.numeros = numeros;
+        this.de = de;
+        this.ate = ate;
+    }
+    
+    /**
+     * Retorna o vetor de números.
+     * @return o vetor
+     */
+    public int[] getNumeros() {
+        return numeros;
+    }
+    
+    /**
+     * Retorna o menor valor aceito.
+     * @return limite inferior (inclusivo)
+     */
+    public int getDe() {
+        return de;
+    }
+    
+    /**
+     * Retorna o maior valor aceito.
+     * @return limite superior (inclusivo)
+     */
+    public int getAte() {
+        return ate;
+    }
+    
+    /**
+     * Filtra os elementos dentro do intervalo e ordena o resultado.
+     * @return os elementos em [de, ate], em ordem crescente
+     */
+    public int[] calcular() {
+        if (numeros == null || numeros.length == 0) {
+            return new int[0];
+        }
+        
+        // Filtrar os elementos dentro do intervalo
+        int[] filtrados = new int[numeros.length];
+        int quantidade = 0;
+        for (int i = 0; i < numeros.length; i++) {
+            int x = numeros[i];
+            if (x >= de && x <= ate) {
+                filtrados[quantidade++] = x;
+            }
+        }
+        
+        // Ordenar só os elementos filtrados
+        int[] resultado = Arrays.copyOf(filtrados, quantidade);
+        OrdenacaoNatural.ordenar(resultado, 0, resultado.length);
+        return resultado;
+    }
+}
@@ -0,0 +1,113 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Um passo da seleção distribuída (K-ésimo menor elemento / percentil).
+ *
+ * A seleção é feita em rodadas, sem devolver as partes inteiras:
+ * - CONTAR: o servidor conta quantos elementos da sua parte caem em cada
+ *   faixa de [minimo, maximo] (RespostaHistograma). O cliente soma as
+ *   contagens, descobre em qual faixa está o K-ésimo e estreita o intervalo.
+ * - BUSCAR: quando sobram poucos candidatos, o servidor devolve os elementos
+ *   da sua parte em [minimo, maximo], ordenados (Resposta).
+ *
+ * Só o primeiro pedido leva o vetor. O servidor guarda a parte na conexão
+ * (Receptor.Sessao) e os pedidos seguintes vão sem vetor (numeros == null).
+ * A parte é liberada depois do BUSCAR, na próxima seleção ou quando a conexão fecha.
+ */
+public class PedidoSelecao extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 13L;
+    
+    /**
+     * Etapa da seleção.
+     */
+    public enum Etapa {
+        CONTAR,
+        BUSCAR
+    }
+    
+    private final Etapa etapa;
+    
+    // A parte do vetor (só no primeiro pedido; depois usa a parte guardada no servidor)
+    private final int[] numeros;
+    
+    // Intervalo de valores ainda em disputa (inclusivo)
+    private final int minimo;
+    private final int maximo;
+    
+    // Número de faixas da contagem
+    private final int faixas;
+    
+    /**
+     * Construtor da etapa CONTAR.
+     * @param numeros a parte do vetor, ou null para usar a parte já guardada no servidor
+     * @param minimo menor valor do intervalo (inclusivo)
+     * @param maximo maior valor do intervalo (inclusivo)
+     * @param faixas número de faixas
+     */
+    public PedidoSelecao(int[] numeros, int minimo, int maximo, int faixas) {
+        this.etapa = Etapa.CONTAR;
+        this.numeros = numeros;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.faixas = faixas;
+    }
+    
+    /**
+     * Construtor da etapa BUSCAR (sempre usa a parte guardada no servidor).
+     * @param minimo menor valor do intervalo (inclusivo)
+     * @param maximo maior valor do intervalo (inclusivo)
+     */
+    public PedidoSelecao(int minimo, int maximo) {
+        this.etapa = Etapa.BUSCAR;
+        this.numeros = null;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.faixas = 0;
+    }
+    
+    /**
+     * Retorna a etapa da seleção.
+     * @return CONTAR ou BUSCAR
+     */
+    public Etapa getEtapa() {
+        return etapa;
+    }
+    
+    /**
+     * Retorna a parte do vetor enviada neste pedido.
+     * @return o vetor, ou null se o servidor deve usar a parte guardada
+     */
+    public int[] getNumeros() {
+        return numeros;
+    }
+    
+    /**
+     * Retorna o menor valor do intervalo.
+     * @return limite inferior (inclusivo)
+     */
+    public int getMinimo() {
+        return minimo;
+    }
+    
+    /**
+     * Retorna o maior valor do intervalo.
+     * @return limite superior (inclusivo)
+     */
+    public int getMaximo() {
+        return maximo;
+    }
+    
+    /**
+     * Calcula a resposta deste passo sobre a parte do vetor.
+     * @param parte a parte do vetor (a enviada ou a guardada no servidor)
+     * @return RespostaHistograma (CONTAR) ou Resposta com os candidatos ordenados (BUSCAR)
+     */
+    public Comunicado calcular(int[] parte) {
+        if (etapa == Etapa.CONTAR) {
+            return new PedidoHistograma(parte, minimo, maximo, faixas).calcular();
+        }
+        return new Resposta(new PedidoIntervalo(parte, minimo, maximo).calcular());
+    }
+}
@@ -0,0 +1,96 @@
+package distributed;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Pedido dos K menores (ou K maiores) elementos de um vetor.
+ *
+ * O servidor não ordena o vetor inteiro: usa quickselect para separar
+ * os K elementos e ordena só eles. A Resposta volta com no máximo K
+ * elementos, em ordem crescente.
+ */
+public class PedidoTopK extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 5L;
+    
+    // O vetor de onde os elementos serão escolhidos
+    private final int[] numeros;
+    
+    // Quantos elementos devem ser retornados
+    private final int k;
+    
+    // true para os K maiores, false para os K menores
+    private final boolean maiores;
+    
+    /**
+     * Construtor.
+     * @param numeros o vetor de números inteiros
+     * @param k quantos elementos retornar
+     * @param maiores true para os K maiores, false para os K menores
+     */
+    public PedidoTopK(int[] numeros, int k, boolean maiores) {
+        this.numeros = numeros;
+        this.k = k;
+        this.maiores = maiores;
+    }
+    
+    /**
+     * Retorna o vetor de números.
+     * @return o vetor
+     */
+    public int[] getNumeros() {
+        return numeros;
+    }
+    
+    /**
+     * Retorna quantos elementos devem ser retornados.
+     * @return K
+     */
+    public int getK() {
+        return k;
+    }
+    
+    /**
+     * Indica se são os K maiores (true) ou os K menores (false).
+     * @return true para os K maiores
+     */
+    public boolean isMaiores() {
+        return maiores;
+    }
+    
+    /**
+     * Calcula os K menores (ou maiores) elementos.
+     * @return vetor com no máximo K elementos, em ordem crescente
+     */
+    public int[] calcular() {
+        if (numeros == null || numeros.length == 0 || k <= 0) {
+            return new int[0];
+        }
+        
+        int n = numeros.length;
+        int quantidade = Math.min(k, n);
+        
+        // Criar uma cópia para não modificar o original
+        int[] copia = Arrays.copyOf(numeros, n);
+        
+        int[] resultado;
+        if (maiores) {
+            // Os K maiores ficam em copia[n-K..n)
+            int corte = n - quantidade;
+            if (corte > 0) {
+                Selecao.selecionar(copia, 0, n, corte);
+            }
+            resultado = Arrays.copyOfRange(copia, corte, n);
+        } else {
+            // Os K menores ficam em copia[0..K)
+            if (quantidade < n) {
+                Selecao.selecionar(copia, 0, n, quantidade - 1);
+            }
+            resultado = Arrays.copyOf(copia, quantidade);
+        }
+        
+        // Ordenar só os K elementos escolhidos
+        OrdenacaoNatural.ordenar(resultado, 0, resultado.length);
+        return resultado;
+    }
+}
@@ -0,0 +1,120 @@
+package distributed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de vetores int[] reutilizáveis, separados por classe de tamanho.
+ *
+ * Cada classe guarda vetores com tamanho igual a uma potência de 2.
+ * Quem pede um vetor recebe um com tamanho >= ao pedido (por isso quem usa
+ * precisa guardar o tamanho útil separado) e deve devolvê-lo quando terminar.
+ * Assim, pedidos grandes e repetidos não criam vetores novos a cada vez,
+ * o que evita coletas de lixo longas na old generation.
+ *
+ * Só são aceitos de volta os vetores que o próprio pool entregou: um vetor
+ * criado por quem chama (mesmo com tamanho de potência de 2) nunca entra no
+ * pool, senão seria entregue a outro pedido e sobrescrito.
+ *
+ * Pode ser usado por várias threads ao mesmo tempo.
+ */
+public final class PoolBuffers {
+    
+    // Menor classe: 2^10 = 1024 inteiros (vetores menores não compensam)
+    private static final int MENOR_CLASSE = 10;
+    
+    // Maior classe: 2^30 inteiros (acima disso o vetor é criado sem pool)
+    private static final int MAIOR_CLASSE = 30;
+    
+    // Quantos vetores livres cada classe guarda no máximo
+    private static final int MAXIMO_POR_CLASSE = 4;
+    
+    // Limite total de memória guardada no pool (512 MB)
+    private static final long LIMITE_BYTES = 512L * 1024 * 1024;
+    
+    // Uma fila de vetores livres por classe (índice = expoente da potência de 2)
+    private static final List<ConcurrentLinkedDeque<int[]>> livres = new ArrayList<ConcurrentLinkedDeque<int[]>>();
+    
+    private static final AtomicLong bytesGuardados = new AtomicLong();
+    
+    // Vetores entregues pelo pool e ainda não devolvidos (comparados por identidade).
+    // Referências fracas: um vetor que nunca for devolvido pode ser coletado normalmente.
+    private static final Set<int[]> emprestados = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<int[], Boolean>()));
+    
+    static {
+        for (int classe = 0; classe <= MAIOR_CLASSE; classe++) {
+            livres.add(new ConcurrentLinkedDeque<int[]>());
+        }
+    }
+    
+    // Construtor privado para não permitir criar instâncias
+    private PoolBuffers() {
+    }
+    
+    /**
+     * Obtém um vetor com pelo menos 'tamanho' posições.
+     * O conteúdo do vetor é lixo de usos anteriores.
+     * @param tamanho tamanho mínimo
+     * @return um vetor do pool, ou um novo se o pool estiver vazio
+     */
+    public static int[] obter(int tamanho) {
+        int classe = classeDe(tamanho);
+        if (classe > MAIOR_CLASSE) {
+            return new int[tamanho];
+        }
+        
+        // Pegar o último devolvido (mais chance de ainda estar no cache do processador)
+        int[] vetor = livres.get(classe).pollFirst();
+        if (vetor != null) {
+            bytesGuardados.addAndGet(-4L * vetor.length);
+        } else {
+            vetor = new int[1 << classe];
+        }
+        
+        emprestados.add(vetor);
+        return vetor;
+    }
+    
+    /**
+     * Devolve um vetor ao pool. Depois de devolver, o vetor não pode mais ser usado.
+     * Vetores que não foram entregues pelo pool (ou que já foram devolvidos) são ignorados.
+     * @param vetor o vetor a devolver (pode ser null)
+     */
+    public static void devolver(int[] vetor) {
+        if (vetor == null || !emprestados.remove(vetor)) {
+            return;
+        }
+        
+        int tamanho = vetor.length;
+        
+        ConcurrentLinkedDeque<int[]> fila = livres.get(Integer.numberOfTrailingZeros(tamanho));
+        if (fila.size() >= MAXIMO_POR_CLASSE) {
+            return;
+        }
+        
+        // Respeitar o limite total; se passar, deixar o coletor de lixo ficar com ele
+        long bytes = 4L * tamanho;
+        if (bytesGuardados.addAndGet(bytes) > LIMITE_BYTES) {
+            bytesGuardados.addAndGet(-bytes);
+            return;
+        }
+        
+        fila.offerFirst(vetor);
+    }
+    
+    /**
+     * Classe de tamanho: menor expoente e tal que 2^e >= tamanho.
+     */
+    private static int classeDe(int tamanho) {
+        if (tamanho <= (1 << MENOR_CLASSE)) {
+            return MENOR_CLASSE;
+        }
+        return 32 - Integer.numberOfLeadingZeros(tamanho - 1);
+    }
+}
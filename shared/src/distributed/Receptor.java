@@ -0,0 +1,230 @@
+package distributed;
+
+/**
+ * Lógica do receptor, separada do transporte.
+ *
+ * Recebe um comunicado já lido e devolve a resposta, sem saber se ele
+ * chegou por TCP, por socket Unix ou direto de outra parte da mesma JVM.
+ * É usada pelo ReceptorServer (um Receptor para todas as conexões) e pelo
+ * TransporteLocal do cliente (receptor dentro do próprio processo).
+ *
+ * O cache e as métricas ficam aqui, compartilhados por todas as conexões.
+ * O que é de uma conexão só fica em uma Sessao, criada por quem atende a conexão.
+ */
+public class Receptor {
+    
+    /**
+     * Estado de uma conexão com o receptor.
+     * Guarda a parte do vetor da seleção distribuída (PedidoSelecao), para
+     * as rodadas seguintes não precisarem reenviar o vetor, e a entrada do
+     * cache usada pela última resposta (solta em concluir()).
+     */
+    public static class Sessao {
+        
+        // Parte guardada pelo primeiro PedidoSelecao (null se não houver)
+        private int[] parteSelecao;
+        
+        // Entrada do cache de onde saiu a última resposta (null se não veio do cache)
+        private CacheResultados.Entrada entradaEmUso;
+    }
+    
+    // Cache de resultados (pelo hash do conteúdo)
+    private final CacheResultados cache;
+    
+    // Vazão e carga do receptor, informadas ao cliente
+    private final MetricasReceptor metricas = new MetricasReceptor();
+    
+    /**
+     * Construtor.
+     * @param limiteCacheBytes tamanho máximo do cache em bytes (0 desliga o cache)
+     */
+    public Receptor(long limiteCacheBytes) {
+        this.cache = new CacheResultados(limiteCacheBytes);
+    }
+    
+    /**
+     * Indica se o cache de resultados está ligado.
+     * @return true se o cache estiver ligado
+     */
+    public boolean isCacheAtivo() {
+        return cache.isAtivo();
+    }
+    
+    /**
+     * Processa um comunicado e devolve a resposta que deve ser enviada.
+     *
+     * Um Pedido é ordenado no próprio vetor recebido: quem chama no mesmo
+     * processo recebe de volta o mesmo array, já ordenado, sem nenhuma cópia.
+     *
+     * @param objeto o comunicado recebido
+     * @param origem descrição de quem mandou (usada no log)
+     * @param sessao estado da conexão por onde o comunicado chegou
+     * @return a resposta, ou null se não houver resposta (encerramento ou objeto desconhecido)
+     */
+    public Comunicado processar(Object objeto, String origem, Sessao sessao) {
+        if (objeto instanceof Pedido) {
+            // É um pedido de ordenação
+            Pedido pedido = (Pedido) objeto;
+            
+            Log.info("R", "Pedido recebido de " + origem +
+                    " — tamanho: " + pedido.getTamanho() +
+                    " — algoritmo: " + pedido.getAlgoritmo());
+            
+            // Procurar no cache; se não tiver, ordenar e guardar
+            CacheResultados.Entrada entrada = null;
+            if (cache.isAtivo()) {
+                entrada = cache.buscar(pedido.getHash());
+                if (entrada != null) {
+                    Log.info("R", "Resultado encontrado no cache — " + cache.resumo());
+                }
+            }
+            if (entrada == null) {
+                // Ordenar no próprio buffer recebido (sem cópia)
+                metricas.iniciar();
+                long inicioOrdenacao = System.nanoTime();
+                try {
+                    pedido.ordenarNoLugar();
+                } finally {
+                    metricas.terminar(pedido.getTamanho(), System.nanoTime() - inicioOrdenacao);
+                }
+                if (cache.isAtivo()) {
+                    // O cache fica com o próprio buffer do pedido (sem cópia);
+                    // ele volta ao pool quando sair do cache
+                    entrada = cache.guardar(pedido.getHash(), pedido.getNumeros(), pedido.getTamanho());
+                    if (entrada != null) {
+                        // Agora o buffer é do cache: liberar() não pode devolvê-lo ao pool
+                        pedido.entregarBuffer();
+                    }
+                }
+            }
+            
+            if (entrada != null) {
+                // Resposta sai do buffer do cache: ele fica em uso até concluir()
+                sessao.entradaEmUso = entrada;
+                return new Resposta(entrada.getVetor(), entrada.getTamanho());
+            }
+            
+            // Criar resposta com o vetor ordenado
+            return new Resposta(pedido.getNumeros(), pedido.getTamanho());
+            
+        } else if (objeto instanceof PedidoCapacidade) {
+            // Cliente quer saber a capacidade atual deste receptor
+            RespostaCapacidade capacidade = metricas.capacidade();
+            
+            Log.info("R", "Capacidade informada para " + origem + ": " + capacidade);
+            
+            return capacidade;
+            
+        } else if (objeto instanceof PedidoHash) {
+            // Cliente mandou só o hash: responder do cache ou pedir o vetor
+            PedidoHash pedido = (PedidoHash) objeto;
+            
+            CacheResultados.Entrada entrada = cache.isAtivo() ? cache.buscar(pedido.getHash()) : null;
+            
+            if (entrada != null && entrada.getTamanho() != pedido.getTamanho()) {
+                // Mesmo hash com outro tamanho: não usar
+                cache.soltar(entrada);
+                entrada = null;
+            }
+            
+            if (entrada != null) {
+                Log.info("R", "Hash encontrado no cache (" + pedido.getTamanho() + " elementos) — " +
+                        cache.resumo());
+                sessao.entradaEmUso = entrada;
+                return new Resposta(entrada.getVetor(), entrada.getTamanho());
+            } else {
+                Log.info("R", "Hash não encontrado no cache, pedindo vetor completo");
+                return new RespostaAusente(pedido.getHash());
+            }
+            
+        } else if (objeto instanceof PedidoTopK) {
+            // Pedido dos K menores/maiores: não ordena o vetor inteiro
+            PedidoTopK pedido = (PedidoTopK) objeto;
+            
+            Log.info("R", "Pedido top-" + pedido.getK() + (pedido.isMaiores() ? " (maiores)" : " (menores)") +
+                    " recebido de " + origem +
+                    " — tamanho: " + pedido.getNumeros().length);
+            
+            return new Resposta(pedido.calcular());
+            
+        } else if (objeto instanceof PedidoIntervalo) {
+            // Pedido dos elementos dentro de um intervalo de valores
+            PedidoIntervalo pedido = (PedidoIntervalo) objeto;
+            
+            Log.info("R", "Pedido de intervalo [" + pedido.getDe() + ", " + pedido.getAte() + "]" +
+                    " recebido de " + origem +
+                    " — tamanho: " + pedido.getNumeros().length);
+            
+            return new Resposta(pedido.calcular());
+            
+        } else if (objeto instanceof PedidoHistograma) {
+            // Pedido de histograma: só contagens, nada é ordenado
+            PedidoHistograma pedido = (PedidoHistograma) objeto;
+            
+            Log.info("R", "Pedido de histograma recebido de " + origem +
+                    " — tamanho: " + pedido.getNumeros().length);
+            
+            return pedido.calcular();
+            
+        } else if (objeto instanceof PedidoSelecao) {
+            // Um passo da seleção distribuída: a parte vem só no primeiro pedido
+            PedidoSelecao pedido = (PedidoSelecao) objeto;
+            
+            if (pedido.getNumeros() != null) {
+                sessao.parteSelecao = pedido.getNumeros();
+            }
+            int[] parte = sessao.parteSelecao;
+            
+            if (parte == null) {
+                // Nenhuma parte guardada nesta conexão: responder vazio (o cliente percebe)
+                Log.warn("R", "Seleção recebida de " + origem + " sem parte guardada nesta conexão");
+                if (pedido.getEtapa() == PedidoSelecao.Etapa.CONTAR) {
+                    return new RespostaHistograma(new long[0]);
+                }
+                return new Resposta(null);
+            }
+            
+            Log.info("R", "Seleção (" + pedido.getEtapa() + ") em [" + pedido.getMinimo() + ", " +
+                    pedido.getMaximo() + "] recebida de " + origem + " — tamanho: " + parte.length);
+            
+            Comunicado resposta = pedido.calcular(parte);
+            
+            if (pedido.getEtapa() == PedidoSelecao.Etapa.BUSCAR) {
+                // Última etapa: a parte não é mais necessária
+                sessao.parteSelecao = null;
+            }
+            return resposta;
+            
+        } else if (objeto instanceof ComunicadoEncerramento) {
+            // Encerramento não tem resposta
+            Log.warn("R", "Encerramento recebido de " + origem);
+            return null;
+            
+        } else {
+            // Objeto desconhecido
+            Log.warn("R", "Objeto desconhecido recebido: " + objeto.getClass().getSimpleName());
+            return null;
+        }
+    }
+    
+    /**
+     * Avisa que a resposta de processar() já foi enviada.
+     *
+     * Devolve ao pool o buffer de um Pedido e solta a entrada do cache de
+     * onde a resposta saiu (se ela já tiver saído do cache, o buffer volta
+     * ao pool agora). Até aqui os dois buffers ainda podiam estar sendo lidos.
+     *
+     * @param objeto o comunicado que foi processado
+     * @param sessao estado da conexão por onde ele chegou
+     */
+    public void concluir(Object objeto, Sessao sessao) {
+        if (objeto instanceof Pedido) {
+            ((Pedido) objeto).liberar();
+        }
+        
+        if (sessao.entradaEmUso != null) {
+            cache.soltar(sessao.entradaEmUso);
+            sessao.entradaEmUso = null;
+        }
+    }
+}
@@ -1,23 +1,44 @@
 package distributed;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
  * Classe que representa a resposta do servidor.
  * Contém o vetor já ordenado que será enviado de volta para o cliente.
+ * 
+ * No servidor o vetor pode ser um buffer do pool maior que o resultado;
+ * só as primeiras getTamanho() posições são enviadas. Do lado do cliente
+ * o vetor recebido tem exatamente o tamanho do resultado.
  */
 public class Resposta extends Comunicado implements Serializable {
-    private static final long serialVersionUID = 3L;
+    // Era 3L; mudou quando o vetor passou a ser enviado à mão (writeObject/readObject)
+    private static final long serialVersionUID = 15L;
     
-    // O vetor já ordenado
-    private final int[] vetorOrdenado;
+    // O vetor já ordenado (enviado à mão em writeObject)
+    private transient int[] vetorOrdenado;
+    
+    // Quantas posições de 'vetorOrdenado' fazem parte do resultado
+    private transient int tamanho;
     
     /**
      * Construtor que recebe o vetor ordenado.
      * @param vetorOrdenado o vetor já ordenado
      */
     public Resposta(int[] vetorOrdenado) {
+        this(vetorOrdenado, vetorOrdenado == null ? 0 : vetorOrdenado.length);
+    }
+    
+    /**
+     * Construtor que recebe um vetor do qual só as primeiras posições são o resultado.
+     * @param vetorOrdenado o vetor (pode ser maior que o resultado)
+     * @param tamanho quantas posições fazem parte do resultado
+     */
+    public Resposta(int[] vetorOrdenado, int tamanho) {
         this.vetorOrdenado = vetorOrdenado;
+        this.tamanho = tamanho;
     }
     
     /**
@@ -27,4 +48,39 @@ public class Resposta extends Comunicado implements Serializable {
     public int[] getVetorOrdenado() {
         return vetorOrdenado;
     }
+    
+    /**
+     * Retorna quantos elementos o resultado tem.
+     * @return o tamanho do resultado
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    /**
+     * Serialização: escreve só as posições do resultado.
+     */
+    private void writeObject(ObjectOutputStream saida) throws IOException {
+        saida.defaultWriteObject();
+        saida.writeInt(vetorOrdenado == null ? -1 : tamanho);
+        if (vetorOrdenado != null) {
+            SerializacaoVetor.escrever(saida, vetorOrdenado, tamanho);
+        }
+    }
+    
+    /**
+     * Desserialização: cria um vetor com o tamanho exato do resultado.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        int recebido = entrada.readInt();
+        if (recebido < 0) {
+            vetorOrdenado = null;
+            tamanho = 0;
+        } else {
+            vetorOrdenado = new int[recebido];
+            tamanho = recebido;
+            SerializacaoVetor.ler(entrada, vetorOrdenado, tamanho);
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Resposta a um PedidoHash quando o servidor não tem o resultado guardado.
+ * O cliente deve enviar o Pedido completo.
+ */
+public class RespostaAusente extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 10L;
+    
+    // Hash que não foi encontrado
+    private final String hash;
+    
+    /**
+     * Construtor.
+     * @param hash o hash que não foi encontrado
+     */
+    public RespostaAusente(String hash) {
+        this.hash = hash;
+    }
+    
+    /**
+     * Retorna o hash que não foi encontrado.
+     * @return o hash em hexadecimal
+     */
+    public String getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,75 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Capacidade atual de um servidor: núcleos, memória livre,
+ * vazão recente de ordenação e quantos pedidos está atendendo agora.
+ */
+public class RespostaCapacidade extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 12L;
+    
+    // Número de núcleos disponíveis para a JVM do servidor
+    private final int nucleos;
+    
+    // Memória que ainda pode ser usada pela JVM (em bytes)
+    private final long memoriaLivre;
+    
+    // Vazão recente de ordenação em elementos por milissegundo (0 se ainda não ordenou nada)
+    private final double vazao;
+    
+    // Pedidos de ordenação sendo atendidos neste momento
+    private final int pedidosEmAndamento;
+    
+    /**
+     * Construtor.
+     * @param nucleos número de núcleos
+     * @param memoriaLivre memória livre em bytes
+     * @param vazao vazão recente (elementos/ms), 0 se desconhecida
+     * @param pedidosEmAndamento pedidos sendo atendidos agora
+     */
+    public RespostaCapacidade(int nucleos, long memoriaLivre, double vazao, int pedidosEmAndamento) {
+        this.nucleos = nucleos;
+        this.memoriaLivre = memoriaLivre;
+        this.vazao = vazao;
+        this.pedidosEmAndamento = pedidosEmAndamento;
+    }
+    
+    /**
+     * Retorna o número de núcleos.
+     * @return núcleos disponíveis
+     */
+    public int getNucleos() {
+        return nucleos;
+    }
+    
+    /**
+     * Retorna a memória livre.
+     * @return memória livre em bytes
+     */
+    public long getMemoriaLivre() {
+        return memoriaLivre;
+    }
+    
+    /**
+     * Retorna a vazão recente de ordenação.
+     * @return elementos por milissegundo (0 se desconhecida)
+     */
+    public double getVazao() {
+        return vazao;
+    }
+    
+    /**
+     * Retorna quantos pedidos o servidor está atendendo agora.
+     * @return pedidos em andamento
+     */
+    public int getPedidosEmAndamento() {
+        return pedidosEmAndamento;
+    }
+    
+    @Override
+    public String toString() {
+        return nucleos + " núcleo(s), " + (memoriaLivre / (1024 * 1024)) + " MB livres, " +
+                String.format("%.1f", vazao) + " elementos/ms, " + pedidosEmAndamento + " pedido(s) em andamento";
+    }
+}
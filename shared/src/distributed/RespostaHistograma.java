@@ -0,0 +1,30 @@
+package distributed;
+
+import java.io.Serializable;
+
+/**
+ * Resposta de um PedidoHistograma.
+ * Contém a quantidade de elementos em cada faixa do histograma.
+ */
+public class RespostaHistograma extends Comunicado implements Serializable {
+    private static final long serialVersionUID = 8L;
+    
+    // Quantidade de elementos em cada faixa
+    private final long[] contagens;
+    
+    /**
+     * Construtor que recebe as contagens.
+     * @param contagens quantidade de elementos por faixa
+     */
+    public RespostaHistograma(long[] contagens) {
+        this.contagens = contagens;
+    }
+    
+    /**
+     * Retorna as contagens.
+     * @return quantidade de elementos por faixa
+     */
+    public long[] getContagens() {
+        return contagens;
+    }
+}
@@ -0,0 +1,77 @@
+package distributed;
+
+import java.util.Arrays;
+
+/**
+ * Algoritmos de seleção (quickselect).
+ *
+ * Encontram o k-ésimo menor elemento sem ordenar o vetor inteiro,
+ * em tempo médio O(n). Usados pelos pedidos de top-K e k-ésimo elemento.
+ */
+public final class Selecao {
+    
+    // Construtor privado para não permitir criar instâncias
+    private Selecao() {
+    }
+    
+    /**
+     * Reorganiza vetor[inicio..fim) de forma que vetor[k] fique com o valor
+     * que teria se o trecho estivesse ordenado. Todos os elementos antes de k
+     * ficam <= vetor[k] e todos os depois de k ficam >= vetor[k].
+     * @param vetor o vetor
+     * @param inicio índice inicial (inclusivo)
+     * @param fim índice final (exclusivo)
+     * @param k posição desejada (inicio <= k < fim)
+     */
+    public static void selecionar(int[] vetor, int inicio, int fim, int k) {
+        // Limite de profundidade: se o pivô for ruim muitas vezes, ordena o resto
+        int limite = 2 * (32 - Integer.numberOfLeadingZeros(fim - inicio));
+        
+        while (fim - inicio > KernelOrdenacao.TAMANHO_BLOCO) {
+            if (limite-- == 0) {
+                Arrays.sort(vetor, inicio, fim);
+                return;
+            }
+            
+            int pivo = medianaDeTres(vetor[inicio], vetor[(inicio + fim) >>> 1], vetor[fim - 1]);
+            
+            // Partição em três partes: [menores | iguais | maiores]
+            // Assim vetores com muitos valores repetidos não ficam lentos
+            int menor = inicio;
+            int i = inicio;
+            int maior = fim;
+            while (i < maior) {
+                int x = vetor[i];
+                if (x < pivo) {
+                    trocar(vetor, menor++, i++);
+                } else if (x > pivo) {
+                    trocar(vetor, i, --maior);
+                } else {
+                    i++;
+                }
+            }
+            
+            // Continuar só na parte que contém a posição k
+            if (k < menor) {
+                fim = menor;
+            } else if (k >= maior) {
+                inicio = maior;
+            } else {
+                return;  // k caiu no meio dos iguais ao pivô
+            }
+        }
+        
+        // Trecho pequeno: ordenar direto
+        KernelOrdenacao.ordenarBloco(vetor, inicio, fim);
+    }
+    
+    private static int medianaDeTres(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+    
+    private static void trocar(int[] vetor, int i, int j) {
+        int aux = vetor[i];
+        vetor[i] = vetor[j];
+        vetor[j] = aux;
+    }
+}
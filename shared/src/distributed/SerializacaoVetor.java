@@ -0,0 +1,68 @@
+package distributed;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Escreve e lê trechos de vetores int[] em streams de objetos.
+ *
+ * Diferente de writeObject(int[]), permite enviar só as primeiras
+ * 'tamanho' posições e ler direto para um vetor que já existe
+ * (por exemplo, um vetor do PoolBuffers). A conversão é feita em blocos
+ * de 64 KB, usando um buffer por thread.
+ */
+public final class SerializacaoVetor {
+    
+    private static final int TAMANHO_BLOCO_BYTES = 64 * 1024;
+    
+    // Um buffer de conversão por thread (cada conexão tem sua thread)
+    private static final ThreadLocal<ByteBuffer> bloco = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(TAMANHO_BLOCO_BYTES);
+        }
+    };
+    
+    // Construtor privado para não permitir criar instâncias
+    private SerializacaoVetor() {
+    }
+    
+    /**
+     * Escreve vetor[0..tamanho) no stream.
+     * @param saida o stream de saída
+     * @param vetor o vetor
+     * @param tamanho quantos elementos escrever
+     */
+    public static void escrever(ObjectOutputStream saida, int[] vetor, int tamanho) throws IOException {
+        ByteBuffer bytes = bloco.get();
+        IntBuffer inteiros = bytes.asIntBuffer();
+        
+        for (int i = 0; i < tamanho; i += inteiros.capacity()) {
+            int quantidade = Math.min(inteiros.capacity(), tamanho - i);
+            inteiros.clear();
+            inteiros.put(vetor, i, quantidade);
+            saida.write(bytes.array(), 0, quantidade * 4);
+        }
+    }
+    
+    /**
+     * Lê 'tamanho' elementos do stream para vetor[0..tamanho).
+     * @param entrada o stream de entrada
+     * @param vetor o vetor de destino (com pelo menos 'tamanho' posições)
+     * @param tamanho quantos elementos ler
+     */
+    public static void ler(ObjectInputStream entrada, int[] vetor, int tamanho) throws IOException {
+        ByteBuffer bytes = bloco.get();
+        IntBuffer inteiros = bytes.asIntBuffer();
+        
+        for (int i = 0; i < tamanho; i += inteiros.capacity()) {
+            int quantidade = Math.min(inteiros.capacity(), tamanho - i);
+            entrada.readFully(bytes.array(), 0, quantidade * 4);
+            inteiros.clear();
+            inteiros.get(vetor, i, quantidade);
+        }
+    }
+}